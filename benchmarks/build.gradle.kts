@@ -0,0 +1,46 @@
+plugins {
+    java
+    id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3"
+}
+
+group = "net.protsenko.cryptobridge"
+version = "0.0.1-SNAPSHOT"
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(24)
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencyManagement {
+    imports {
+        mavenBom("org.springframework.boot:spring-boot-dependencies:3.5.3")
+    }
+}
+
+dependencies {
+    jmh(project(":spot-fetch-price"))
+    jmh("org.knowm.xchange:xchange-core:5.2.2")
+    jmh("com.fasterxml.jackson.core:jackson-databind")
+    jmh("org.springframework:spring-webflux")
+    jmh("org.springframework.data:spring-data-redis")
+    jmh("io.projectreactor.netty:reactor-netty-http")
+    jmh("io.micrometer:micrometer-core")
+}
+
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    if (project.hasProperty("jmhIncludes")) {
+        includes = listOf(project.property("jmhIncludes").toString())
+    }
+}
@@ -0,0 +1,28 @@
+package net.protsenko.cryptobridge.benchmarks;
+
+import net.protsenko.spotfetchprice.util.NetworkNormalizer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NetworkNormalizerBenchmark {
+
+    private static final String[] RAW_NETWORKS = {
+            "ERC20", "Ethereum(ERC20)", "BSC", "BNB Smart Chain (BEP20)", "TRC20", "Tron(TRC20)",
+            "SOL", "Solana", "Arbitrum One", "ARBITRUM ONE(ARB)", "Polygon(MATIC)", "OP Mainnet",
+            "zkSync Era", "Base Mainnet", "TON", "Avalanche C-Chain", "KAVAEVM", "APT", "NEAR Protocol", "Sui"
+    };
+
+    @Benchmark
+    @OperationsPerInvocation(20)
+    public void normalize(Blackhole blackhole) {
+        for (String raw : RAW_NETWORKS) {
+            blackhole.consume(NetworkNormalizer.normalize(raw));
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package net.protsenko.cryptobridge.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.protsenko.spotfetchprice.dto.PriceSpreadResult;
+import net.protsenko.spotfetchprice.props.DepthProperties;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties;
+import net.protsenko.spotfetchprice.props.FeeProperties;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
+import net.protsenko.spotfetchprice.service.ExchangeService;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.PriceSpreadService;
+import net.protsenko.spotfetchprice.service.depth.DepthAwareSpreadFilter;
+import net.protsenko.spotfetchprice.service.depth.OrderBookCache;
+import net.protsenko.spotfetchprice.service.market.MarketMatrix;
+import net.protsenko.spotfetchprice.service.market.MarketMatrixStore;
+import net.protsenko.spotfetchprice.service.market.MarketSnapshot;
+import net.protsenko.spotfetchprice.service.market.MarketSnapshotStore;
+import net.protsenko.spotfetchprice.service.market.PairIndex;
+import net.protsenko.spotfetchprice.service.market.RedisTickerStore;
+import net.protsenko.spotfetchprice.service.market.UsdPriceResolver;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.provider.TradingInfoEnricher;
+import net.protsenko.spotfetchprice.service.provider.TradingInfoProviderFactory;
+import net.protsenko.spotfetchprice.service.spread.NetProfitCalculator;
+import net.protsenko.spotfetchprice.service.spread.SpreadKernel;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpreadScanBenchmark {
+
+    @Param({"1000", "5000", "20000"})
+    public int pairCount;
+
+    private List<CurrencyPair> pairs;
+    private List<ExchangeType> exchanges;
+    private List<MarketSnapshot> snapshots;
+    private MarketMatrixStore matrixStore;
+    private PriceSpreadService priceSpreadService;
+    private int nextSnapshot;
+
+    @Setup
+    public void setUp() {
+        pairs = SyntheticMarket.pairs(pairCount);
+        exchanges = List.of(ExchangeType.values());
+        snapshots = SyntheticMarket.snapshots(pairs, 42);
+
+        ExchangeCacheProperties cacheProperties = new ExchangeCacheProperties();
+        cacheProperties.setRedisEnabled(false);
+        cacheProperties.setTtlMs(Long.MAX_VALUE / 2);
+
+        MarketSnapshotStore snapshotStore = new MarketSnapshotStore();
+        matrixStore = new MarketMatrixStore(snapshotStore, new PairIndex());
+        matrixStore.register();
+        snapshots.forEach(snapshotStore::publish);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExchangeMetrics exchangeMetrics = new ExchangeMetrics(meterRegistry);
+        ExchangeService exchangeService = new ExchangeService(
+                new RedisTickerStore(new RedisTemplate<>(), cacheProperties), null, snapshotStore, cacheProperties,
+                exchangeMetrics, meterRegistry);
+        TradingInfoProviderFactory providerFactory = new TradingInfoProviderFactory(
+                null, null, null, null, null, null, null, null, null);
+        providerFactory.init();
+
+        UsdPriceResolver usdPriceResolver = new UsdPriceResolver(snapshotStore, cacheProperties);
+        DepthProperties depthProperties = new DepthProperties();
+        DepthAwareSpreadFilter depthFilter = new DepthAwareSpreadFilter(
+                depthProperties, new OrderBookCache(exchangeService, depthProperties, meterRegistry),
+                usdPriceResolver, exchangeMetrics);
+
+        NetProfitCalculator netProfitCalculator = new NetProfitCalculator(new FeeProperties(), usdPriceResolver);
+        TradingInfoEnricher enricher = new TradingInfoEnricher(
+                providerFactory, new TradingInfoProperties(), exchangeMetrics, netProfitCalculator);
+
+        priceSpreadService = new PriceSpreadService(exchangeService, enricher, matrixStore, cacheProperties, depthFilter);
+    }
+
+    @Benchmark
+    public void kernelSweep(Blackhole blackhole) {
+        MarketMatrix matrix = matrixStore.current();
+        for (int row = 0; row < matrix.rows(); row++) {
+            blackhole.consume(SpreadKernel.findBest(
+                    matrix.bid(), matrix.ask(), matrix.volume(), matrix.offset(row), MarketMatrix.WIDTH, 0));
+        }
+    }
+
+    @Benchmark
+    public List<PriceSpreadResult> findMaxArbitrageSpreadsForPairs() {
+        return priceSpreadService.findMaxArbitrageSpreadsForPairs(pairs, exchanges, 0, 1.0, 5.0);
+    }
+
+    @Benchmark
+    public MarketMatrix publishSnapshot() {
+        MarketSnapshot snapshot = snapshots.get(nextSnapshot++ % snapshots.size());
+        matrixStore.onSnapshot(null, snapshot);
+        return matrixStore.current();
+    }
+
+}
@@ -0,0 +1,58 @@
+package net.protsenko.cryptobridge.benchmarks;
+
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.market.MarketSnapshot;
+import org.knowm.xchange.currency.CurrencyPair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+final class SyntheticMarket {
+
+    private SyntheticMarket() {
+    }
+
+    static List<CurrencyPair> pairs(int count) {
+        List<CurrencyPair> pairs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pairs.add(new CurrencyPair("C" + i, "USDT"));
+        }
+        return pairs;
+    }
+
+    static List<MarketSnapshot> snapshots(List<CurrencyPair> pairs, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] mid = new double[pairs.size()];
+        for (int i = 0; i < mid.length; i++) {
+            mid[i] = 0.001 + random.nextDouble() * 1_000;
+        }
+
+        long now = System.currentTimeMillis();
+        List<MarketSnapshot> snapshots = new ArrayList<>();
+        for (ExchangeType exchangeType : ExchangeType.values()) {
+            List<TickerDTO> tickers = new ArrayList<>(pairs.size());
+            for (int i = 0; i < pairs.size(); i++) {
+                if (random.nextDouble() < 0.3) {
+                    continue;
+                }
+                CurrencyPair pair = pairs.get(i);
+                double price = mid[i] * (1 + (random.nextDouble() - 0.5) * 0.04);
+                double halfSpread = price * 0.0005;
+                tickers.add(new TickerDTO(
+                        pair.getBase().getCurrencyCode(),
+                        pair.getCounter().getCurrencyCode(),
+                        price,
+                        price - halfSpread,
+                        price + halfSpread,
+                        random.nextDouble() * 1_000_000,
+                        now
+                ));
+            }
+            snapshots.add(MarketSnapshot.of(exchangeType, tickers, now));
+        }
+        return snapshots;
+    }
+
+}
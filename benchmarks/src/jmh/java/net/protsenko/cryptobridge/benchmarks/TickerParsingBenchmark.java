@@ -0,0 +1,170 @@
+package net.protsenko.cryptobridge.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.props.BingXApiProperties;
+import net.protsenko.spotfetchprice.props.HuobiApiProperties;
+import net.protsenko.spotfetchprice.props.InstrumentCacheProperties;
+import net.protsenko.spotfetchprice.props.MEXCApiProperties;
+import net.protsenko.spotfetchprice.props.OKXApiProperties;
+import net.protsenko.spotfetchprice.props.RateLimitProperties;
+import net.protsenko.spotfetchprice.service.exchange.BingXClient;
+import net.protsenko.spotfetchprice.service.exchange.HuobiClient;
+import net.protsenko.spotfetchprice.service.exchange.MEXCClient;
+import net.protsenko.spotfetchprice.service.exchange.OKXClient;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TickerParsingBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"MEXC", "OKX", "BINGX", "HUOBI"})
+    public String exchange;
+
+    @Param({"2000"})
+    public int tickerCount;
+
+    @Param({"3000"})
+    public int pairCount;
+
+    @Param({"NONE", "LIST", "SET"})
+    public String filter;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private byte[] payload;
+    private Set<CurrencyPair> pairsFilter;
+    private Map<String, CurrencyPair> huobiSymbols;
+    private MEXCClient mexcClient;
+    private OKXClient okxClient;
+    private BingXClient bingXClient;
+    private HuobiClient huobiClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<CurrencyPair> universe = SyntheticMarket.pairs(Math.max(tickerCount, pairCount));
+        List<CurrencyPair> pairs = universe.subList(0, tickerCount);
+        payload = expand(exchange.toLowerCase(), pairs);
+
+        List<CurrencyPair> requested = new ArrayList<>(universe.subList(0, pairCount));
+        Collections.shuffle(requested, new Random(42));
+        pairsFilter = switch (filter) {
+            case "NONE" -> Set.of();
+            case "LIST" -> new ListBackedSet<>(requested);
+            case "SET" -> new HashSet<>(requested);
+            default -> throw new IllegalArgumentException(filter);
+        };
+        huobiSymbols = new HashMap<>();
+        for (CurrencyPair pair : pairs) {
+            huobiSymbols.put(huobiSymbol(pair), pair);
+        }
+
+        InstrumentCacheProperties instrumentCacheProperties = new InstrumentCacheProperties();
+        ExchangeRateLimiter rateLimiter = new ExchangeRateLimiter(new RateLimitProperties());
+        ExchangeMetrics exchangeMetrics = new ExchangeMetrics(new SimpleMeterRegistry());
+        mexcClient = new MEXCClient(new MEXCApiProperties(), objectMapper, instrumentCacheProperties, rateLimiter, exchangeMetrics);
+        okxClient = new OKXClient(new OKXApiProperties(), objectMapper, instrumentCacheProperties, rateLimiter, exchangeMetrics);
+        bingXClient = new BingXClient(new BingXApiProperties(), objectMapper, instrumentCacheProperties, rateLimiter, exchangeMetrics);
+        huobiClient = new HuobiClient(new HuobiApiProperties(), objectMapper, instrumentCacheProperties, rateLimiter, exchangeMetrics);
+    }
+
+    @Benchmark
+    public List<TickerDTO> readTickers() throws IOException {
+        Flux<DataBuffer> body = Flux.range(0, (payload.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(chunk -> {
+                    int from = chunk * CHUNK_SIZE;
+                    int length = Math.min(CHUNK_SIZE, payload.length - from);
+                    return bufferFactory.wrap(ByteBuffer.wrap(payload, from, length).slice());
+                });
+
+        return switch (exchange) {
+            case "MEXC" -> mexcClient.readTickers(body, pairsFilter);
+            case "OKX" -> okxClient.readTickers(body, pairsFilter);
+            case "BINGX" -> bingXClient.readTickers(body, pairsFilter);
+            case "HUOBI" -> huobiClient.readTickers(body, huobiSymbols, pairsFilter);
+            default -> throw new IllegalArgumentException(exchange);
+        };
+    }
+
+    private byte[] expand(String name, List<CurrencyPair> pairs) throws IOException {
+        JsonNode recorded;
+        try (InputStream in = getClass().getResourceAsStream("/payloads/" + name + ".json")) {
+            recorded = objectMapper.readTree(in);
+        }
+
+        ArrayNode templates = (ArrayNode) (recorded.isArray() ? recorded : recorded.get("data"));
+        ArrayNode expanded = objectMapper.createArrayNode();
+        for (int i = 0; i < pairs.size(); i++) {
+            ObjectNode ticker = templates.get(i % templates.size()).deepCopy();
+            CurrencyPair pair = pairs.get(i);
+            switch (name) {
+                case "mexc" -> ticker.put("symbol", pair.getBase().getCurrencyCode() + pair.getCounter().getCurrencyCode());
+                case "okx" -> ticker.put("instId", pair.getBase().getCurrencyCode() + "-" + pair.getCounter().getCurrencyCode());
+                case "bingx" -> ticker.put("symbol", pair.getBase().getCurrencyCode() + "-" + pair.getCounter().getCurrencyCode());
+                case "huobi" -> ticker.put("symbol", huobiSymbol(pair));
+                default -> throw new IllegalArgumentException(name);
+            }
+            expanded.add(ticker);
+        }
+
+        JsonNode root = recorded.isArray() ? expanded : ((ObjectNode) recorded.deepCopy()).set("data", expanded);
+        return objectMapper.writeValueAsBytes(root);
+    }
+
+    private static String huobiSymbol(CurrencyPair pair) {
+        return (pair.getBase().getCurrencyCode() + pair.getCounter().getCurrencyCode()).toLowerCase();
+    }
+
+    private static final class ListBackedSet<E> extends AbstractSet<E> {
+
+        private final List<E> elements;
+
+        private ListBackedSet(List<E> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return elements.contains(o);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return elements.iterator();
+        }
+
+        @Override
+        public int size() {
+            return elements.size();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package net.protsenko.cryptobridge.benchmarks;
+
+import net.protsenko.spotfetchprice.dto.ExchangeTickersDTO;
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties.RedisCodec;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.market.MarketSnapshot;
+import net.protsenko.spotfetchprice.util.TickerRedisSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TickerSerializationBenchmark {
+
+    @Param({"2000"})
+    public int tickerCount;
+
+    @Param({"json", "binary", "binary-lz4"})
+    public String format;
+
+    private RedisSerializer<TickerDTO> tickerSerializer;
+    private RedisSerializer<ExchangeTickersDTO> bulkSerializer;
+    private TickerDTO ticker;
+    private byte[] tickerBytes;
+    private ExchangeTickersDTO bulk;
+    private byte[] bulkBytes;
+
+    @Setup
+    public void setUp() {
+        RedisCodec codec = format.equals("json") ? RedisCodec.JSON : RedisCodec.BINARY;
+        tickerSerializer = TickerRedisSerializer.forTickers(codec);
+        bulkSerializer = TickerRedisSerializer.forSnapshots(codec, format.endsWith("lz4"));
+
+        MarketSnapshot snapshot = SyntheticMarket.snapshots(SyntheticMarket.pairs(tickerCount), 7).getFirst();
+        ticker = snapshot.tickers().values().iterator().next();
+        tickerBytes = tickerSerializer.serialize(ticker);
+        bulk = new ExchangeTickersDTO(ExchangeType.values()[0].name(), new ArrayList<>(snapshot.tickers().values()), snapshot.timestamp());
+        bulkBytes = bulkSerializer.serialize(bulk);
+    }
+
+    @Benchmark
+    public byte[] serializeTicker() {
+        return tickerSerializer.serialize(ticker);
+    }
+
+    @Benchmark
+    public Object deserializeTicker() {
+        return tickerSerializer.deserialize(tickerBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeBulk() {
+        return bulkSerializer.serialize(bulk);
+    }
+
+    @Benchmark
+    public Object deserializeBulk() {
+        return bulkSerializer.deserialize(bulkBytes);
+    }
+
+}
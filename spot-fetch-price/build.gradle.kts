@@ -30,6 +30,9 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-redis")
     implementation("org.springframework.boot:spring-boot-starter-webflux")
     implementation("org.springframework.boot:spring-boot-starter-amqp")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
     implementation("org.knowm.xchange:xchange-core:5.2.2")
     implementation("org.knowm.xchange:xchange-bybit:5.2.2")
@@ -45,6 +48,7 @@ dependencies {
 
     implementation("com.fasterxml.jackson.core:jackson-databind:2.19.2")
     implementation("org.json:json:20240303")
+    implementation("org.lz4:lz4-java:1.8.0")
     implementation("org.mapstruct:mapstruct:1.6.3")
 
     compileOnly("org.projectlombok:lombok")
@@ -4,14 +4,14 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import net.protsenko.spotfetchprice.dto.ExchangeTickersDTO;
 import net.protsenko.spotfetchprice.dto.TickerDTO;
 import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties;
+import net.protsenko.spotfetchprice.util.TickerRedisSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -19,20 +19,16 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 public class RedisConfig {
 
     @Bean
-    public RedisTemplate<String, TickerDTO> tickerRedisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, TickerDTO> tickerRedisTemplate(
+            RedisConnectionFactory connectionFactory,
+            ExchangeCacheProperties cacheProperties
+    ) {
         RedisTemplate<String, TickerDTO> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
-        template.setKeySerializer(new org.springframework.data.redis.serializer.StringRedisSerializer());
-        template.setValueSerializer(new org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer());
-        return template;
-    }
-
-    @Bean
-    public RedisTemplate<String, ExchangeTickersDTO> exchangeTickersRedisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, ExchangeTickersDTO> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(TickerRedisSerializer.forTickers(cacheProperties.getRedisCodec()));
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(TickerRedisSerializer.forTickers(cacheProperties.getRedisCodec()));
         return template;
     }
 
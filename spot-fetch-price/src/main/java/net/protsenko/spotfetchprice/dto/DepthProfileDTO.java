@@ -0,0 +1,19 @@
+package net.protsenko.spotfetchprice.dto;
+
+import java.util.Comparator;
+import java.util.List;
+
+public record DepthProfileDTO(
+        double executableVolume,
+        double executableNotionalUsd,
+        double executableProfitPercent,
+        List<NotionalFillDTO> fills
+) {
+
+    public NotionalFillDTO smallestFill() {
+        return fills.stream()
+                .min(Comparator.comparingDouble(NotionalFillDTO::notionalUsd))
+                .orElse(null);
+    }
+
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 public record ExchangeTickersDTO(
         String exchangeName,
-        List<TickerDTO> tickers
+        List<TickerDTO> tickers,
+        long timestamp
 ) {
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package net.protsenko.spotfetchprice.dto;
+
+public record NetProfitDTO(
+        String network,
+        double withdrawFee,
+        double feesPercent,
+        double netProfitPercent,
+        Boolean routable,
+        boolean feesKnown
+) {
+}
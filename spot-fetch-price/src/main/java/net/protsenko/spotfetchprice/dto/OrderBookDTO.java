@@ -0,0 +1,15 @@
+package net.protsenko.spotfetchprice.dto;
+
+import java.util.List;
+
+public record OrderBookDTO(
+        List<OrderBookLevelDTO> bids,
+        List<OrderBookLevelDTO> asks,
+        long timestamp
+) {
+
+    public boolean isEmpty() {
+        return bids.isEmpty() || asks.isEmpty();
+    }
+
+}
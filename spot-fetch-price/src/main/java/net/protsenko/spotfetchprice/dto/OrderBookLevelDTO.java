@@ -0,0 +1,7 @@
+package net.protsenko.spotfetchprice.dto;
+
+public record OrderBookLevelDTO(
+        double price,
+        double amount
+) {
+}
@@ -13,6 +13,10 @@ public record PriceSpreadResult(
         double sellVolume,
         TradingInfoDTO sellTradingInfo,
         double spread,
-        double profitPercent
+        double profitPercent,
+        boolean enrichmentPending,
+        long snapshotAgeMs,
+        DepthProfileDTO depth,
+        NetProfitDTO netProfit
 ) {
 }
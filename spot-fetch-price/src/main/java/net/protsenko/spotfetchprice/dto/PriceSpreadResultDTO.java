@@ -13,6 +13,10 @@ public record PriceSpreadResultDTO(
         double sellPrice,
         Double sellVolume,
         double spread,
-        double spreadPercentage
+        double spreadPercentage,
+        boolean enrichmentPending,
+        long snapshotAgeMs,
+        DepthProfileDTO depth,
+        NetProfitDTO netProfit
 ) {
 }
@@ -1,8 +0,0 @@
-package net.protsenko.spotfetchprice.dto;
-
-public record TickerData(
-        double bid,
-        double ask,
-        double volume
-) {
-}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package net.protsenko.spotfetchprice.mapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.experimental.UtilityClass;
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
+import net.protsenko.spotfetchprice.dto.OrderBookLevelDTO;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.trade.LimitOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@UtilityClass
+public class OrderBookMapper {
+
+    public OrderBookDTO fromOrderBook(OrderBook orderBook, int depth) {
+        return new OrderBookDTO(
+                fromLimitOrders(orderBook.getBids(), depth),
+                fromLimitOrders(orderBook.getAsks(), depth),
+                orderBook.getTimeStamp() != null ? orderBook.getTimeStamp().getTime() : System.currentTimeMillis()
+        );
+    }
+
+    public OrderBookDTO fromLevels(JsonNode bids, JsonNode asks, int depth) {
+        return new OrderBookDTO(levels(bids, depth), levels(asks, depth), System.currentTimeMillis());
+    }
+
+    private List<OrderBookLevelDTO> levels(JsonNode rows, int depth) {
+        if (rows == null || !rows.isArray()) {
+            return List.of();
+        }
+        List<OrderBookLevelDTO> levels = new ArrayList<>(Math.min(rows.size(), depth));
+        for (JsonNode row : rows) {
+            if (levels.size() >= depth) break;
+            double price = row.path(0).asDouble();
+            double amount = row.path(1).asDouble();
+            if (price > 0 && amount > 0) {
+                levels.add(new OrderBookLevelDTO(price, amount));
+            }
+        }
+        return levels;
+    }
+
+    private List<OrderBookLevelDTO> fromLimitOrders(List<LimitOrder> orders, int depth) {
+        List<OrderBookLevelDTO> levels = new ArrayList<>(Math.min(orders.size(), depth));
+        for (LimitOrder order : orders) {
+            if (levels.size() >= depth) break;
+            if (order.getLimitPrice() == null || order.getOriginalAmount() == null) continue;
+            levels.add(new OrderBookLevelDTO(order.getLimitPrice().doubleValue(), order.getOriginalAmount().doubleValue()));
+        }
+        return levels;
+    }
+
+}
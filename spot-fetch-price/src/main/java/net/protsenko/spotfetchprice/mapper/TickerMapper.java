@@ -66,13 +66,18 @@ public class TickerMapper {
         return bd != null ? bd.doubleValue() : 0.0;
     }
 
-    private CurrencyPair parseBitfinexSymbol(String symbol) {
+    public CurrencyPair parseBitfinexSymbol(String symbol) {
         log.debug("Parsing Bitfinex symbol: {}", symbol);
         if (symbol == null || !symbol.startsWith("t")) {
             throw new IllegalArgumentException("Invalid Bitfinex symbol: " + symbol);
         }
         String coreSymbol = symbol.substring(1);
 
+        int separator = coreSymbol.indexOf(':');
+        if (separator > 0) {
+            return new CurrencyPair(coreSymbol.substring(0, separator), coreSymbol.substring(separator + 1));
+        }
+
         if (coreSymbol.length() < 6) {
             throw new IllegalArgumentException("Symbol too short for pair: " + coreSymbol);
         }
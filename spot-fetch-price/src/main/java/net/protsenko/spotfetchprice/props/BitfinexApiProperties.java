@@ -0,0 +1,31 @@
+package net.protsenko.spotfetchprice.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "exchanger.properties.bitfinex")
+public class BitfinexApiProperties {
+
+    private String baseUrl = "https://api-pub.bitfinex.com";
+    private String tickersPath = "/v2/tickers";
+    private String userAgent = "Mozilla/5.0";
+    private boolean bulkTickers = true;
+    private int batchSize = 70;
+    private int batchConcurrency = 4;
+    private int maxInMemorySize = 20 * 1024 * 1024;
+    private int responseTimeoutSeconds = 30;
+
+    public ReactorClientHttpConnector createConnector() {
+        return new ReactorClientHttpConnector(
+                HttpClient.create().responseTimeout(Duration.ofSeconds(responseTimeoutSeconds))
+        );
+    }
+
+}
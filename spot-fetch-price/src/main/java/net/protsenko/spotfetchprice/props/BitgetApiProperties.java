@@ -19,7 +19,6 @@ public class BitgetApiProperties {
     private String passphrase;
     private final String baseUrl = "https://api.bitget.com";
     private final String spotConfigUrl = "/api/spot/v1/public/currencies";
-    private final String redisKeyAll = "tradingInfo:bitget:all";
     private int maxInMemorySize = 20 * 1024 * 1024;
     private int responseTimeoutSeconds = 60;
 
@@ -13,7 +13,6 @@ public class CoinEXApiProperties {
 
     private final String baseUrl = "https://api.coinex.com/v2";
     private final String spotConfigPath = "/assets/all-deposit-withdraw-config";
-    private final String redisKeyAll = "tradingInfo:coinex:all";
     private int maxInMemorySize = 20 * 1024 * 1024;
     private int responseTimeoutSeconds = 60;
 
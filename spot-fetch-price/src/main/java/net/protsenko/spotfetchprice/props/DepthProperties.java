@@ -0,0 +1,40 @@
+package net.protsenko.spotfetchprice.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "arbitrage.depth")
+public class DepthProperties {
+
+    private boolean enabled = false;
+
+    private int topK = 20;
+
+    private int levels = 20;
+
+    private List<Double> notionalsUsd = new ArrayList<>(List.of(100d, 1_000d, 10_000d));
+
+    private boolean dropUnfillable = true;
+
+    private long cacheMs = 3_000;
+
+    private int concurrency = 8;
+
+    private long timeoutMs = 3_000;
+
+    public void setNotionalsUsd(List<Double> notionalsUsd) {
+        this.notionalsUsd = notionalsUsd.stream()
+                .filter(notional -> notional != null && notional > 0)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+}
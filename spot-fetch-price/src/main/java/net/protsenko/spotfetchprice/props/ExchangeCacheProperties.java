@@ -0,0 +1,39 @@
+package net.protsenko.spotfetchprice.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "exchange.cache")
+public class ExchangeCacheProperties {
+
+    private long refreshMs = 300_000;
+
+    private long softTtlMs = 330_000;
+
+    private long ttlMs = 600_000;
+
+    private boolean redisEnabled = true;
+
+    private boolean backgroundRefresh = true;
+
+    private long refreshJitterMs = 5_000;
+
+    private long initialBackoffMs = 5_000;
+
+    private long maxBackoffMs = 300_000;
+
+    private RedisCodec redisCodec = RedisCodec.BINARY;
+
+    private boolean redisPipelining = true;
+
+    private int redisBatchSize = 500;
+
+    public enum RedisCodec {
+        JSON,
+        BINARY
+    }
+
+}
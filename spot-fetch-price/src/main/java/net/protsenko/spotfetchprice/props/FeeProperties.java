@@ -0,0 +1,30 @@
+package net.protsenko.spotfetchprice.props;
+
+import lombok.Data;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "arbitrage.fees")
+public class FeeProperties {
+
+    private boolean enabled = true;
+
+    private double defaultTakerFeePercent = 0.1;
+
+    private Map<ExchangeType, Double> takerFeePercent = new EnumMap<>(ExchangeType.class);
+
+    private double tradeNotionalUsd = 1_000;
+
+    private boolean publishUnknownFees = true;
+
+    public double takerFeeOf(ExchangeType exchangeType) {
+        return takerFeePercent.getOrDefault(exchangeType, defaultTakerFeePercent);
+    }
+
+}
@@ -0,0 +1,16 @@
+package net.protsenko.spotfetchprice.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "arbitrage.incremental")
+public class IncrementalSpreadProperties {
+
+    private boolean enabled = false;
+
+    private long filterRefreshMs = 60_000;
+
+}
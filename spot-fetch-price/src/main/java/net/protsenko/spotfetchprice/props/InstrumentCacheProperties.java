@@ -0,0 +1,18 @@
+package net.protsenko.spotfetchprice.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "exchange.instruments")
+public class InstrumentCacheProperties {
+
+    private long ttlMs = 21_600_000;
+
+    private long refreshMs = 3_600_000;
+
+    private long retryMs = 30_000;
+
+}
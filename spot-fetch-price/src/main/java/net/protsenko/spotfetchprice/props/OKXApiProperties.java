@@ -13,6 +13,7 @@ public class OKXApiProperties {
     private final String baseUrl = "https://www.okx.com";
     private final String stopConfigPath = "/api/v5/asset/currencies";
     private final String tickersPath = "/api/v5/market/tickers?instType=SPOT";
+    private final String booksPath = "/api/v5/market/books";
     private final String instrumentsPath = "/api/v5/public/instruments?instType=SPOT";
     private final String userAgent = "Mozilla/5.0";
     private String key;
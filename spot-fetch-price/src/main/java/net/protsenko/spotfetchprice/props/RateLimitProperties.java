@@ -0,0 +1,57 @@
+package net.protsenko.spotfetchprice.props;
+
+import lombok.Data;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "exchange.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private Limit defaults = new Limit();
+
+    private Map<ExchangeType, Limit> exchanges = new EnumMap<>(ExchangeType.class);
+
+    private long throttleCooldownMs = 10_000;
+
+    private long banCooldownMs = 120_000;
+
+    private long exhaustedCooldownMs = 1_000;
+
+    private double minRateFraction = 0.1;
+
+    private List<String> remainingHeaders = List.of(
+            "X-Bapi-Limit-Status", "X-RateLimit-Remaining", "X-Gate-RateLimit-Requests-Remain");
+
+    private List<String> resetHeaders = List.of(
+            "X-Bapi-Limit-Reset-Timestamp", "X-RateLimit-Reset", "X-Gate-RateLimit-Reset-Timestamp");
+
+    public Limit limitFor(ExchangeType exchangeType) {
+        return exchanges.getOrDefault(exchangeType, defaults);
+    }
+
+    @Data
+    public static class Limit {
+
+        private double capacity = 10;
+
+        private double refillPerSecond = 5;
+
+        private Map<RateLimitEndpoint, Integer> weights = new EnumMap<>(RateLimitEndpoint.class);
+
+        public int weightOf(RateLimitEndpoint endpoint) {
+            return Math.max(1, weights.getOrDefault(endpoint, 1));
+        }
+
+    }
+
+}
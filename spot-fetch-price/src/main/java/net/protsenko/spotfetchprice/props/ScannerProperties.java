@@ -0,0 +1,30 @@
+package net.protsenko.spotfetchprice.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "arbitrage.scanner")
+public class ScannerProperties {
+
+    private long refreshMs = 300_000;
+
+    private boolean batchMode = true;
+
+    private OverlapPolicy overlapPolicy = OverlapPolicy.SKIP;
+
+    private int maxQueuedScans = 2;
+
+    private boolean adaptiveCadence = true;
+
+    private long minIntervalMs = 5_000;
+
+    public enum OverlapPolicy {
+        SKIP,
+        COALESCE,
+        QUEUE
+    }
+
+}
@@ -0,0 +1,54 @@
+package net.protsenko.spotfetchprice.props;
+
+import lombok.Data;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "exchange.stream")
+public class StreamProperties {
+
+    private boolean enabled = false;
+
+    private List<ExchangeType> exchanges = new ArrayList<>(List.of(
+            ExchangeType.OKX, ExchangeType.BYBIT, ExchangeType.MEXC,
+            ExchangeType.BINGX, ExchangeType.HUOBI, ExchangeType.KUCOIN
+    ));
+
+    private Map<ExchangeType, String> endpoints = new EnumMap<>(ExchangeType.class);
+
+    private List<String> quotes = new ArrayList<>(List.of("USDT"));
+
+    private int maxPairs = 1000;
+
+    private long publishMs = 1_000;
+
+    private long idleTimeoutMs = 60_000;
+
+    private long reconnectInitialMs = 1_000;
+
+    private long reconnectMaxMs = 60_000;
+
+    private Replay replay = new Replay();
+
+    @Data
+    public static class Replay {
+
+        private boolean enabled = false;
+
+        private int port = 9400;
+
+        private String framesLocation = "classpath:replay/";
+
+        private long frameIntervalMs = 500;
+
+    }
+
+}
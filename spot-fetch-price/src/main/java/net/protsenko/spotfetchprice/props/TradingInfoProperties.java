@@ -0,0 +1,20 @@
+package net.protsenko.spotfetchprice.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "trading-info")
+public class TradingInfoProperties {
+
+    private long refreshMs = 3_600_000;
+
+    private long redisTtlMs = 86_400_000;
+
+    private long retryMs = 60_000;
+
+    private long enrichmentTimeoutMs = 1_500;
+
+}
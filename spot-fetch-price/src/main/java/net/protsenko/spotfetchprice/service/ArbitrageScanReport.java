@@ -0,0 +1,9 @@
+package net.protsenko.spotfetchprice.service;
+
+public record ArbitrageScanReport(
+        int pairsEvaluated,
+        int exchangesScanned,
+        int exchangesResponding,
+        int opportunities
+) {
+}
@@ -1,23 +1,207 @@
 package net.protsenko.spotfetchprice.service;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties;
+import net.protsenko.spotfetchprice.props.ScannerProperties;
+import net.protsenko.spotfetchprice.props.StreamProperties;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class ArbitrageScannerScheduler {
 
     private final ArbitrageScannerService scannerService;
+    private final ExchangeService exchangeService;
+    private final ScannerProperties scannerProperties;
+    private final ExchangeCacheProperties cacheProperties;
+    private final StreamProperties streamProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final ScheduledExecutorService trigger = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("arbitrage-scan-trigger").daemon(true).factory());
+    private final ExecutorService scanExecutor;
+
+    private final AtomicBoolean scanning = new AtomicBoolean();
+    private final AtomicBoolean rerunRequested = new AtomicBoolean();
+    private final AtomicInteger queuedScans = new AtomicInteger();
+    private volatile long lastScanDurationMs;
+    private volatile long lastScannedDataTimestamp;
+
+    private final Timer scanDuration;
+    private final DistributionSummary pairsEvaluated;
+    private final DistributionSummary exchangesResponding;
+    private final DistributionSummary opportunitiesFound;
+
+    public ArbitrageScannerScheduler(
+            ArbitrageScannerService scannerService,
+            ExchangeService exchangeService,
+            ScannerProperties scannerProperties,
+            ExchangeCacheProperties cacheProperties,
+            StreamProperties streamProperties,
+            ExchangeMetrics exchangeMetrics,
+            MeterRegistry meterRegistry
+    ) {
+        this.scannerService = scannerService;
+        this.exchangeService = exchangeService;
+        this.scannerProperties = scannerProperties;
+        this.cacheProperties = cacheProperties;
+        this.streamProperties = streamProperties;
+        this.meterRegistry = meterRegistry;
+        this.scanExecutor = exchangeMetrics.monitor(new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().name("arbitrage-scan").daemon(true).factory()), "arbitrage-scan");
+        this.scanDuration = Timer.builder("arbitrage.scan.duration")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.pairsEvaluated = DistributionSummary.builder("arbitrage.scan.pairs").register(meterRegistry);
+        this.exchangesResponding = DistributionSummary.builder("arbitrage.scan.exchanges.responding").register(meterRegistry);
+        this.opportunitiesFound = DistributionSummary.builder("arbitrage.scan.opportunities").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        trigger.schedule(this::tick, 0, TimeUnit.MILLISECONDS);
+        log.info("Arbitrage scans scheduled with {} overlap policy, adaptive cadence {}",
+                scannerProperties.getOverlapPolicy(), scannerProperties.isAdaptiveCadence());
+    }
+
+    @PreDestroy
+    public void stop() {
+        trigger.shutdownNow();
+        scanExecutor.shutdownNow();
+    }
+
+    public boolean requestScan() {
+        return switch (scannerProperties.getOverlapPolicy()) {
+            case SKIP -> {
+                if (!scanning.compareAndSet(false, true)) {
+                    countRequest("skipped");
+                    yield false;
+                }
+                countRequest("started");
+                scanExecutor.execute(this::runExclusive);
+                yield true;
+            }
+            case COALESCE -> {
+                if (scanning.compareAndSet(false, true)) {
+                    countRequest("started");
+                    scanExecutor.execute(this::runExclusive);
+                } else {
+                    rerunRequested.set(true);
+                    countRequest("coalesced");
+                }
+                yield true;
+            }
+            case QUEUE -> {
+                if (queuedScans.incrementAndGet() > scannerProperties.getMaxQueuedScans() + 1) {
+                    queuedScans.decrementAndGet();
+                    countRequest("skipped");
+                    yield false;
+                }
+                countRequest("queued");
+                scanExecutor.execute(this::runQueued);
+                yield true;
+            }
+        };
+    }
 
-    @Scheduled(fixedRateString = "${arbitrage.scanner.refresh-ms}")
-    public void scheduledScan() {
+    private void tick() {
         try {
-            scannerService.scanBestSpreads();
+            if (scannerProperties.isAdaptiveCadence() && cacheProperties.isBackgroundRefresh() && !hasNewData()) {
+                countRequest("unchanged");
+            } else {
+                requestScan();
+            }
+        } catch (Exception e) {
+            log.error("Error while triggering arbitrage scan", e);
+        } finally {
+            if (!trigger.isShutdown()) {
+                trigger.schedule(this::tick, nextDelayMs(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void runExclusive() {
+        try {
+            scan();
+        } finally {
+            scanning.set(false);
+            if (rerunRequested.getAndSet(false) && scanning.compareAndSet(false, true)) {
+                scanExecutor.execute(this::runExclusive);
+            }
+        }
+    }
+
+    private void runQueued() {
+        try {
+            scan();
+        } finally {
+            queuedScans.decrementAndGet();
+        }
+    }
+
+    private void scan() {
+        long dataTimestamp = latestDataTimestamp();
+        long start = System.nanoTime();
+        try {
+            ArbitrageScanReport report = scannerService.scanBestSpreads();
+            pairsEvaluated.record(report.pairsEvaluated());
+            exchangesResponding.record(report.exchangesResponding());
+            opportunitiesFound.record(report.opportunities());
+            lastScannedDataTimestamp = dataTimestamp;
         } catch (Exception e) {
             log.error("Error during scheduled arbitrage scan", e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            scanDuration.record(elapsed, TimeUnit.NANOSECONDS);
+            lastScanDurationMs = TimeUnit.NANOSECONDS.toMillis(elapsed);
         }
     }
+
+    private long nextDelayMs() {
+        if (!scannerProperties.isAdaptiveCadence()) {
+            return scannerProperties.getRefreshMs();
+        }
+        long dataIntervalMs = streamProperties.isEnabled()
+                ? streamProperties.getPublishMs()
+                : cacheProperties.getRefreshMs();
+        long delay = Math.min(scannerProperties.getRefreshMs(), dataIntervalMs);
+        return Math.max(Math.max(delay, scannerProperties.getMinIntervalMs()), lastScanDurationMs);
+    }
+
+    private boolean hasNewData() {
+        long latest = latestDataTimestamp();
+        return latest == 0 || latest > lastScannedDataTimestamp;
+    }
+
+    private long latestDataTimestamp() {
+        return Arrays.stream(exchangeService.getSnapshotTimestamps()).max().orElse(0);
+    }
+
+    private void countRequest(String outcome) {
+        Counter.builder("arbitrage.scan.requests")
+                .tag("policy", scannerProperties.getOverlapPolicy().name().toLowerCase())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
 }
@@ -3,10 +3,15 @@ package net.protsenko.spotfetchprice.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.ArbitrageOpportunityFoundEvent;
+import net.protsenko.spotfetchprice.dto.NetProfitDTO;
+import net.protsenko.spotfetchprice.dto.PriceSpreadResult;
 import net.protsenko.spotfetchprice.mapper.ServiceMapper;
+import net.protsenko.spotfetchprice.props.FeeProperties;
+import net.protsenko.spotfetchprice.props.ScannerProperties;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -20,8 +25,10 @@ public class ArbitrageScannerService {
     private final ArbitrageScannerConfig config;
     private final ApplicationEventPublisher eventPublisher;
     private final ServiceMapper serviceMapper;
+    private final ScannerProperties scannerProperties;
+    private final FeeProperties feeProperties;
 
-    public void scanBestSpreads() {
+    public ArbitrageScanReport scanBestSpreads() {
         log.info("Starting arbitrage scan");
 
         var pairs = config.getPairsToScan() != null
@@ -48,37 +55,73 @@ public class ArbitrageScannerService {
                 ? config.getExchangesToScan()
                 : exchangeService.getAvailableExchanges();
 
-        for (var pair : pairs) {
-            priceSpreadService.findMaxArbitrageSpreadForPair(
-                    pair, exchanges, config.getMinVolume(), config.getMinProfitPercent(), config.getMaxProfitPercent()
-            ).ifPresent(spread -> {
-                String buyNetworks = spread.buyTradingInfo().networks().stream()
-                        .map(n -> String.format("%s: withdrawFee=%.4f (deposit: %s, withdraw: %s)",
-                                n.network(), n.withdrawFee(), n.depositEnabled(), n.withdrawEnabled()))
-                        .collect(Collectors.joining("; "));
-                String sellNetworks = spread.sellTradingInfo().networks().stream()
-                        .map(n -> String.format("%s: withdrawFee=%.4f (deposit: %s, withdraw: %s)",
-                                n.network(), n.withdrawFee(), n.depositEnabled(), n.withdrawEnabled()))
-                        .collect(Collectors.joining("; "));
-
-                log.info(
-                        "Best arbitrage for pair {}: Buy on {} at {} [{}], " +
-                                "sell on {} at {} [{}], spread = ({}%)",
-                        spread.instrument(),
-                        spread.buyExchange(),
-                        spread.buyPrice(),
-                        buyNetworks,
-                        spread.sellExchange(),
-                        spread.sellPrice(),
-                        sellNetworks,
-                        spread.profitPercent()
+        int opportunities = 0;
+        if (scannerProperties.isBatchMode()) {
+            List<PriceSpreadResult> spreads = priceSpreadService.findMaxArbitrageSpreadsForPairs(
+                    pairs, exchanges, config.getMinVolume(), config.getMinProfitPercent(), config.getMaxProfitPercent()
+            );
+            for (PriceSpreadResult spread : spreads) {
+                if (publishOpportunity(spread)) {
+                    opportunities++;
+                }
+            }
+        } else {
+            for (var pair : pairs) {
+                var spread = priceSpreadService.findMaxArbitrageSpreadForPair(
+                        pair, exchanges, config.getMinVolume(), config.getMinProfitPercent(), config.getMaxProfitPercent()
                 );
+                if (spread.isPresent() && publishOpportunity(spread.get())) {
+                    opportunities++;
+                }
+            }
+        }
+
+        var report = new ArbitrageScanReport(
+                pairs.size(), exchanges.size(), exchangeService.countUsableSnapshots(exchanges), opportunities
+        );
+        log.info("Arbitrage scan completed: {} pairs, {}/{} exchanges responding, {} opportunities",
+                report.pairsEvaluated(), report.exchangesResponding(), report.exchangesScanned(), report.opportunities());
+        return report;
+    }
 
-                eventPublisher.publishEvent(new ArbitrageOpportunityFoundEvent(serviceMapper.toDto(spread)));
-            });
+    boolean publishOpportunity(PriceSpreadResult spread) {
+        NetProfitDTO netProfit = spread.netProfit();
+        if (netProfit != null && (Boolean.FALSE.equals(netProfit.routable())
+                || netProfit.netProfitPercent() < config.getMinProfitPercent()
+                || !netProfit.feesKnown() && !feeProperties.isPublishUnknownFees())) {
+            log.debug("Skipping {} {}->{}: gross {}%, net {}%, network {}, fees known {}",
+                    spread.instrument(), spread.buyExchange(), spread.sellExchange(),
+                    spread.profitPercent(), netProfit.netProfitPercent(),
+                    netProfit.network() != null ? netProfit.network() : "none", netProfit.feesKnown());
+            return false;
         }
 
-        log.info("Arbitrage scan completed");
+        String buyNetworks = spread.buyTradingInfo().networks().stream()
+                .map(n -> String.format("%s: withdrawFee=%.4f (deposit: %s, withdraw: %s)",
+                        n.network(), n.withdrawFee(), n.depositEnabled(), n.withdrawEnabled()))
+                .collect(Collectors.joining("; "));
+        String sellNetworks = spread.sellTradingInfo().networks().stream()
+                .map(n -> String.format("%s: withdrawFee=%.4f (deposit: %s, withdraw: %s)",
+                        n.network(), n.withdrawFee(), n.depositEnabled(), n.withdrawEnabled()))
+                .collect(Collectors.joining("; "));
+
+        log.info(
+                "Best arbitrage for pair {}: Buy on {} at {} [{}], " +
+                        "sell on {} at {} [{}], spread = ({}%), net = ({}%{})",
+                spread.instrument(),
+                spread.buyExchange(),
+                spread.buyPrice(),
+                buyNetworks,
+                spread.sellExchange(),
+                spread.sellPrice(),
+                sellNetworks,
+                spread.profitPercent(),
+                netProfit != null ? netProfit.netProfitPercent() : spread.profitPercent(),
+                netProfit != null && !netProfit.feesKnown() ? ", fees unknown" : ""
+        );
+
+        eventPublisher.publishEvent(new ArbitrageOpportunityFoundEvent(serviceMapper.toDto(spread)));
+        return true;
     }
 
 }
\ No newline at end of file
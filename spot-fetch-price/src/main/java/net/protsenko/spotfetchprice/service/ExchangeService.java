@@ -1,46 +1,62 @@
 package net.protsenko.spotfetchprice.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import net.protsenko.spotfetchprice.dto.ExchangeTickersDTO;
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
 import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties;
 import net.protsenko.spotfetchprice.service.exchange.ExchangeClient;
 import net.protsenko.spotfetchprice.service.exchange.ExchangeClientFactory;
 import net.protsenko.spotfetchprice.service.exchange.ExchangeClientHolder;
+import net.protsenko.spotfetchprice.service.market.MarketSnapshot;
+import net.protsenko.spotfetchprice.service.market.MarketSnapshotStore;
+import net.protsenko.spotfetchprice.service.market.RedisTickerStore;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.stream.StreamingExchangeClient;
+import net.protsenko.spotfetchprice.util.SingleFlight;
 import org.knowm.xchange.currency.CurrencyPair;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class ExchangeService {
 
-    private static final long CACHE_TTL_SECONDS = 300;
-    private static final int BULK_THRESHOLD = 40;
-    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
-    private final ValueOperations<String, TickerDTO> tickerValueOps;
-    private final ValueOperations<String, ExchangeTickersDTO> bulkValueOps;
+    private final ExecutorService executor;
+    private final RedisTickerStore redisTickerStore;
     private final ExchangeClientFactory exchangeClientFactory;
+    private final MarketSnapshotStore snapshotStore;
+    private final ExchangeCacheProperties cacheProperties;
+    private final ExchangeMetrics exchangeMetrics;
     private final Map<ExchangeType, ExchangeClientHolder> exchangeClients = new ConcurrentHashMap<>();
+    private final Map<ExchangeType, Long> lastRedisWrite = new ConcurrentHashMap<>();
+    private final Set<ExchangeType> revalidating = ConcurrentHashMap.newKeySet();
+    private final SingleFlight<ExchangeType, MarketSnapshot> tickerFlights;
 
     public ExchangeService(
-            RedisTemplate<String, TickerDTO> tickerRedisTemplate,
-            RedisTemplate<String, ExchangeTickersDTO> bulkRedisTemplate,
-            ExchangeClientFactory exchangeClientFactory
+            RedisTickerStore redisTickerStore,
+            ExchangeClientFactory exchangeClientFactory,
+            MarketSnapshotStore snapshotStore,
+            ExchangeCacheProperties cacheProperties,
+            ExchangeMetrics exchangeMetrics,
+            MeterRegistry meterRegistry
     ) {
-        this.tickerValueOps = tickerRedisTemplate.opsForValue();
-        this.bulkValueOps = bulkRedisTemplate.opsForValue();
+        this.redisTickerStore = redisTickerStore;
         this.exchangeClientFactory = exchangeClientFactory;
+        this.snapshotStore = snapshotStore;
+        this.cacheProperties = cacheProperties;
+        this.exchangeMetrics = exchangeMetrics;
+        this.executor = exchangeMetrics.virtualThreadExecutor("exchange-service");
+        this.tickerFlights = new SingleFlight<>("tickers", meterRegistry);
     }
 
     @PostConstruct
@@ -59,6 +75,27 @@ public class ExchangeService {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        exchangeClients.values().forEach(holder -> {
+            try {
+                if (!holder.isDisabled() && holder.getClient() instanceof StreamingExchangeClient streaming) {
+                    streaming.stop();
+                }
+            } catch (Exception ignored) {
+            }
+        });
+    }
+
+    public boolean isStreaming(ExchangeType exchangeType) {
+        ExchangeClientHolder holder = exchangeClients.get(exchangeType);
+        try {
+            return holder != null && !holder.isDisabled() && holder.getClient().isStreaming();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     public Map<ExchangeType, Map<CurrencyPair, TickerDTO>> getAllMarketDataForAllExchanges(
             List<ExchangeType> exchanges,
             List<CurrencyPair> currencyPairs
@@ -82,69 +119,174 @@ public class ExchangeService {
     }
 
     public Map<CurrencyPair, TickerDTO> getMarketDataForExchange(ExchangeType exchangeType, List<CurrencyPair> pairs) {
-        if (pairs.size() > BULK_THRESHOLD) {
-            String bulkKey = exchangeType.name() + ":ALL";
-            ExchangeTickersDTO allTickers = bulkValueOps.get(bulkKey);
-
-            if (allTickers != null && allTickers.tickers() != null && !allTickers.tickers().isEmpty()) {
-                log.debug("Bulk cache hit for {}", bulkKey);
-                return allTickers.tickers().stream()
-                        .filter(t -> pairs.contains(new CurrencyPair(t.baseCurrency(), t.counterCurrency())))
-                        .collect(Collectors.toMap(
-                                t -> new CurrencyPair(t.baseCurrency(), t.counterCurrency()),
-                                t -> t
-                        ));
-            }
-            try {
-                ExchangeClient client = getOrCreateExchangeClient(exchangeType);
-                List<TickerDTO> freshTickers = client.getTickers(List.of()); // Пустой список = все пары
-                bulkValueOps.set(bulkKey, new ExchangeTickersDTO(exchangeType.name(), freshTickers), Duration.ofSeconds(CACHE_TTL_SECONDS));
-                log.debug("Bulk cache set for {}", bulkKey);
-                return freshTickers.stream()
-                        .filter(t -> pairs.contains(new CurrencyPair(t.baseCurrency(), t.counterCurrency())))
-                        .collect(Collectors.toMap(
-                                t -> new CurrencyPair(t.baseCurrency(), t.counterCurrency()),
-                                t -> t
-                        ));
-            } catch (Exception e) {
-                log.error("Ошибка bulk-запроса у {}: {}", exchangeType, e.getMessage());
-                return Collections.emptyMap();
+        MarketSnapshot snapshot = snapshotStore.get(exchangeType);
+        boolean usable = isUsable(snapshot);
+        exchangeMetrics.recordCache("snapshot", exchangeType, usable);
+        if (usable) {
+            revalidateIfStale(snapshot);
+            return snapshot.select(pairs);
+        }
+
+        if (pairs == null || pairs.isEmpty()) {
+            snapshot = loadSnapshotFromRedis(exchangeType);
+            usable = isUsable(snapshot);
+            exchangeMetrics.recordCache("redis-snapshot", exchangeType, usable);
+            if (usable) {
+                log.debug("Redis snapshot hit for {}", exchangeType);
+                snapshotStore.publish(snapshot);
+                revalidateIfStale(snapshot);
+                return snapshot.tickers();
             }
         } else {
-            List<String> keys = pairs.stream()
-                    .map(pair -> generateCacheKey(exchangeType, pair))
-                    .toList();
-
-            List<TickerDTO> cachedTickers = tickerValueOps.multiGet(keys);
-            Map<CurrencyPair, TickerDTO> result = new HashMap<>();
-            List<CurrencyPair> missingPairs = new ArrayList<>();
-
-            for (int i = 0; i < pairs.size(); i++) {
-                TickerDTO ticker = cachedTickers.get(i);
-                if (ticker != null) {
-                    result.put(pairs.get(i), ticker);
-                } else {
-                    missingPairs.add(pairs.get(i));
-                }
+            snapshot = loadTickersFromRedis(exchangeType, pairs);
+            usable = isUsable(snapshot);
+            exchangeMetrics.recordCache("redis-tickers", exchangeType, usable);
+            if (usable) {
+                log.debug("Redis hit for {} of {} pairs on {}", snapshot.tickers().size(), pairs.size(), exchangeType);
+                revalidateIfStale(snapshot);
+                return snapshot.tickers();
             }
-            if (!missingPairs.isEmpty()) {
-                try {
-                    ExchangeClient client = getOrCreateExchangeClient(exchangeType);
-                    List<TickerDTO> freshTickers = client.getTickers(missingPairs);
-                    for (TickerDTO ticker : freshTickers) {
-                        CurrencyPair pair = new CurrencyPair(ticker.baseCurrency(), ticker.counterCurrency());
-                        String cacheKey = generateCacheKey(exchangeType, pair);
-                        tickerValueOps.set(cacheKey, ticker, Duration.ofSeconds(CACHE_TTL_SECONDS));
-                        result.put(pair, ticker);
-                    }
-                } catch (Exception e) {
-                    log.error("Ошибка получения тикеров у {}: {}", exchangeType, e.getMessage());
-                }
+        }
+
+        if (cacheProperties.isBackgroundRefresh()) {
+            log.debug("No fresh snapshot for {} yet, waiting for background refresh", exchangeType);
+            return Collections.emptyMap();
+        }
+        try {
+            return refreshSnapshot(exchangeType).select(pairs);
+        } catch (Exception e) {
+            log.error("Ошибка получения тикеров у {}: {}", exchangeType, e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    public void ensureSnapshots(List<ExchangeType> exchanges) {
+        for (ExchangeType exchangeType : normalizeExchanges(exchanges)) {
+            if (isUsable(snapshotStore.get(exchangeType))) {
+                continue;
+            }
+            MarketSnapshot snapshot = loadSnapshotFromRedis(exchangeType);
+            if (isUsable(snapshot)) {
+                snapshotStore.publish(snapshot);
+            }
+        }
+    }
+
+    public MarketSnapshot refreshSnapshot(ExchangeType exchangeType) throws IOException {
+        try {
+            return tickerFlights.execute(exchangeType, () -> fetchSnapshot(exchangeType));
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private MarketSnapshot fetchSnapshot(ExchangeType exchangeType) throws IOException {
+        List<TickerDTO> freshTickers;
+        try {
+            ExchangeClient client = getOrCreateExchangeClient(exchangeType);
+            freshTickers = recordCall(exchangeType, "tickers", () -> client.getTickers(Set.of())); // Пустой набор = все пары
+            exchangeMetrics.recordTickers(exchangeType, freshTickers.size());
+            if (freshTickers.isEmpty()) {
+                throw new IOException("Пустой ответ тикеров от " + exchangeType);
+            }
+        } catch (IOException | RuntimeException e) {
+            snapshotStore.reportRefreshFailure(exchangeType);
+            throw e;
+        }
+        MarketSnapshot snapshot = MarketSnapshot.of(exchangeType, freshTickers, System.currentTimeMillis());
+        snapshotStore.publish(snapshot);
+        writeSnapshotToRedis(exchangeType, freshTickers, snapshot.timestamp());
+        return snapshot;
+    }
+
+    public long[] getSnapshotTimestamps() {
+        long[] timestamps = new long[ExchangeType.values().length];
+        for (ExchangeType exchangeType : ExchangeType.values()) {
+            MarketSnapshot snapshot = snapshotStore.get(exchangeType);
+            timestamps[exchangeType.ordinal()] = snapshot != null ? snapshot.timestamp() : 0;
+        }
+        return timestamps;
+    }
+
+    public int countUsableSnapshots(List<ExchangeType> exchanges) {
+        int usable = 0;
+        for (ExchangeType exchangeType : normalizeExchanges(exchanges)) {
+            if (isUsable(snapshotStore.get(exchangeType))) {
+                usable++;
+            }
+        }
+        return usable;
+    }
+
+    private boolean isUsable(MarketSnapshot snapshot) {
+        return snapshot != null && !snapshot.isEmpty() && snapshot.ageMillis() < cacheProperties.getTtlMs();
+    }
+
+    private void revalidateIfStale(MarketSnapshot snapshot) {
+        if (cacheProperties.isBackgroundRefresh() || snapshot.ageMillis() < cacheProperties.getSoftTtlMs()) {
+            return;
+        }
+        ExchangeType exchangeType = snapshot.exchange();
+        if (!revalidating.add(exchangeType)) {
+            return;
+        }
+        executor.submit(() -> {
+            try {
+                refreshSnapshot(exchangeType);
+                log.debug("Revalidated stale snapshot for {}", exchangeType);
+            } catch (Exception e) {
+                log.warn("Failed to revalidate snapshot for {}: {}", exchangeType, e.getMessage());
+            } finally {
+                revalidating.remove(exchangeType);
             }
-            return result;
+        });
+    }
+
+    private MarketSnapshot loadSnapshotFromRedis(ExchangeType exchangeType) {
+        if (!cacheProperties.isRedisEnabled()) {
+            return null;
+        }
+        try {
+            return redisTickerStore.readAll(exchangeType);
+        } catch (Exception e) {
+            log.warn("Failed to read ticker hash for {}: {}", exchangeType, e.getMessage());
+            return null;
         }
     }
 
+    private MarketSnapshot loadTickersFromRedis(ExchangeType exchangeType, List<CurrencyPair> pairs) {
+        if (!cacheProperties.isRedisEnabled()) {
+            return null;
+        }
+        try {
+            return redisTickerStore.read(exchangeType, pairs);
+        } catch (Exception e) {
+            log.warn("Failed to read {} tickers for {}: {}", pairs.size(), exchangeType, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeSnapshotToRedis(ExchangeType exchangeType, List<TickerDTO> tickers, long timestamp) {
+        if (!cacheProperties.isRedisEnabled()) {
+            return;
+        }
+        Long lastWrite = lastRedisWrite.get(exchangeType);
+        if (lastWrite != null && timestamp - lastWrite < cacheProperties.getRefreshMs()) {
+            return;
+        }
+        lastRedisWrite.put(exchangeType, timestamp);
+        executor.submit(() -> {
+            try {
+                redisTickerStore.write(exchangeType, tickers, timestamp, Duration.ofMillis(cacheProperties.getTtlMs()));
+                log.debug("Ticker hash set for {}", exchangeType);
+            } catch (Exception e) {
+                log.warn("Failed to write ticker hash for {}: {}", exchangeType, e.getMessage());
+            }
+        });
+    }
+
     public List<ExchangeType> getAvailableExchanges() {
         return List.of(ExchangeType.values());
     }
@@ -168,13 +310,28 @@ public class ExchangeService {
     private Collection<CurrencyPair> fetchPairsForExchange(ExchangeType exchangeType) {
         try {
             ExchangeClient client = getOrCreateExchangeClient(exchangeType);
-            return client.getCurrencyPairs();
+            return recordCall(exchangeType, "currency-pairs", client::getCurrencyPairs);
         } catch (Exception e) {
             log.error("Error fetching instruments for exchange {}: {}", exchangeType, e.getMessage(), e);
             return Collections.emptyList();
         }
     }
 
+    public OrderBookDTO getOrderBook(ExchangeType exchangeType, CurrencyPair pair, int depth) throws IOException {
+        ExchangeClient client = getOrCreateExchangeClient(exchangeType);
+        return recordCall(exchangeType, "order-book", () -> client.getOrderBook(pair, depth));
+    }
+
+    private <T> T recordCall(ExchangeType exchangeType, String operation, Callable<T> call) throws IOException {
+        try {
+            return exchangeMetrics.recordCall(exchangeType, operation, call);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
     private List<ExchangeType> normalizeExchanges(List<ExchangeType> exchanges) {
         return (exchanges == null || exchanges.isEmpty())
                 ? Arrays.asList(ExchangeType.values())
@@ -222,8 +379,4 @@ public class ExchangeService {
         }
     }
 
-    private String generateCacheKey(ExchangeType exchangeType, CurrencyPair pair) {
-        return exchangeType.name() + ":" + pair.toString();
-    }
-
 }
\ No newline at end of file
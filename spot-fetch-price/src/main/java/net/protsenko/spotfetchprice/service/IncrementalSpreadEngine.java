@@ -0,0 +1,288 @@
+package net.protsenko.spotfetchprice.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.PriceSpreadResult;
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties;
+import net.protsenko.spotfetchprice.props.IncrementalSpreadProperties;
+import net.protsenko.spotfetchprice.service.depth.DepthAwareSpreadFilter;
+import net.protsenko.spotfetchprice.service.market.MarketSnapshot;
+import net.protsenko.spotfetchprice.service.market.MarketSnapshotListener;
+import net.protsenko.spotfetchprice.service.market.MarketSnapshotStore;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.provider.TradingInfoEnricher;
+import net.protsenko.spotfetchprice.service.spread.SpreadCandidate;
+import net.protsenko.spotfetchprice.service.spread.SpreadKernel;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+@Service
+public class IncrementalSpreadEngine implements MarketSnapshotListener {
+
+    private static final ExchangeType[] EXCHANGES = ExchangeType.values();
+
+    private final MarketSnapshotStore snapshotStore;
+    private final TradingInfoEnricher tradingInfoEnricher;
+    private final ArbitrageScannerService scannerService;
+    private final ArbitrageScannerConfig config;
+    private final ArbitrageScannerConfigService configService;
+    private final IncrementalSpreadProperties properties;
+    private final ExchangeCacheProperties cacheProperties;
+    private final DepthAwareSpreadFilter depthFilter;
+    private final ExecutorService publishExecutor;
+    private final Map<CurrencyPair, PairBook> books = new ConcurrentHashMap<>();
+    private final AtomicLongArray snapshotTimestamps = new AtomicLongArray(EXCHANGES.length);
+
+    private volatile Set<String> whitelist = Set.of();
+    private volatile Set<String> blacklist = Set.of();
+    private volatile long filtersLoadedAt;
+
+    public IncrementalSpreadEngine(
+            MarketSnapshotStore snapshotStore,
+            TradingInfoEnricher tradingInfoEnricher,
+            ArbitrageScannerService scannerService,
+            ArbitrageScannerConfig config,
+            ArbitrageScannerConfigService configService,
+            IncrementalSpreadProperties properties,
+            ExchangeCacheProperties cacheProperties,
+            DepthAwareSpreadFilter depthFilter,
+            ExchangeMetrics exchangeMetrics
+    ) {
+        this.snapshotStore = snapshotStore;
+        this.tradingInfoEnricher = tradingInfoEnricher;
+        this.scannerService = scannerService;
+        this.config = config;
+        this.configService = configService;
+        this.properties = properties;
+        this.cacheProperties = cacheProperties;
+        this.depthFilter = depthFilter;
+        this.publishExecutor = exchangeMetrics.monitor(new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().name("incremental-publish").daemon(true).factory()), "incremental-publish");
+    }
+
+    @PostConstruct
+    public void register() {
+        if (properties.isEnabled()) {
+            snapshotStore.addListener(this);
+            log.info("Incremental spread engine enabled");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publishExecutor.shutdownNow();
+    }
+
+    @Override
+    public void onSnapshot(MarketSnapshot last, MarketSnapshot current) {
+        if (!isScanned(current.exchange())) {
+            return;
+        }
+        refreshFiltersIfStale();
+
+        int column = current.exchange().ordinal();
+        MarketSnapshot previous = snapshotTimestamps.getAndSet(column, current.timestamp()) == 0 ? null : last;
+        List<CurrencyPair> changed = new ArrayList<>();
+
+        for (Map.Entry<CurrencyPair, TickerDTO> entry : current.tickers().entrySet()) {
+            CurrencyPair pair = entry.getKey();
+            TickerDTO ticker = entry.getValue();
+            TickerDTO before = previous == null ? null : previous.tickers().get(pair);
+            if (before != null && sameQuote(before, ticker) || !isScanned(pair)) {
+                continue;
+            }
+            books.computeIfAbsent(pair, k -> new PairBook()).set(column, ticker);
+            changed.add(pair);
+        }
+
+        if (previous != null) {
+            for (CurrencyPair pair : previous.tickers().keySet()) {
+                PairBook book = books.get(pair);
+                if (book != null && !current.tickers().containsKey(pair)) {
+                    book.clear(column);
+                    changed.add(pair);
+                }
+            }
+        }
+
+        List<SpreadCandidate> crossed = new ArrayList<>();
+        for (CurrencyPair pair : changed) {
+            SpreadCandidate candidate = evaluate(pair);
+            if (candidate != null) {
+                crossed.add(candidate);
+            }
+        }
+        publish(crossed);
+        log.debug("Incremental pass for {}: {} of {} pairs changed",
+                current.exchange(), changed.size(), current.tickers().size());
+    }
+
+    @Override
+    public void onRefreshFailed(ExchangeType exchangeType) {
+        if (!isScanned(exchangeType)) {
+            return;
+        }
+        int column = exchangeType.ordinal();
+        snapshotTimestamps.set(column, 0);
+        int cleared = 0;
+        List<SpreadCandidate> crossed = new ArrayList<>();
+        for (Map.Entry<CurrencyPair, PairBook> entry : books.entrySet()) {
+            if (entry.getValue().clear(column)) {
+                SpreadCandidate candidate = evaluate(entry.getKey());
+                if (candidate != null) {
+                    crossed.add(candidate);
+                }
+                cleared++;
+            }
+        }
+        publish(crossed);
+        log.debug("Cleared {} quotes of {} after a failed refresh", cleared, exchangeType);
+    }
+
+    private SpreadCandidate evaluate(CurrencyPair pair) {
+        PairBook book = books.get(pair);
+        if (book == null) {
+            return null;
+        }
+
+        int buy;
+        int sell;
+        double[] quote;
+        long freshMask = freshMask();
+        synchronized (book) {
+            long best = SpreadKernel.findBest(
+                    book.bid, book.ask, book.vol, 0, EXCHANGES.length, config.getMinVolume(), freshMask);
+            buy = SpreadKernel.buyIndex(best);
+            sell = SpreadKernel.sellIndex(best);
+            double profitPercent = best == SpreadKernel.NO_SPREAD
+                    ? Double.NaN
+                    : SpreadKernel.profitPercent(book.ask[buy], book.bid[sell]);
+            boolean inWindow = SpreadKernel.inWindow(
+                    profitPercent, config.getMinProfitPercent(), config.getMaxProfitPercent());
+            boolean crossed = inWindow && !book.inWindow;
+            book.inWindow = inWindow;
+            if (!crossed) {
+                return null;
+            }
+            quote = new double[]{book.ask[buy], book.vol[buy], book.bid[sell], book.vol[sell], profitPercent};
+        }
+
+        return new SpreadCandidate(
+                pair,
+                EXCHANGES[buy], quote[0], quote[1],
+                EXCHANGES[sell], quote[2], quote[3],
+                quote[4],
+                Math.min(snapshotTimestamps.get(buy), snapshotTimestamps.get(sell)),
+                null
+        );
+    }
+
+    private void publish(List<SpreadCandidate> crossed) {
+        if (crossed.isEmpty()) {
+            return;
+        }
+        try {
+            publishExecutor.execute(() -> {
+                try {
+                    List<SpreadCandidate> checked = depthFilter.apply(crossed, config.getMinProfitPercent());
+                    for (PriceSpreadResult result : tradingInfoEnricher.enrich(checked)) {
+                        scannerService.publishOpportunity(result);
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to publish {} incremental opportunities: {}", crossed.size(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Incremental publish skipped, executor is shut down");
+        }
+    }
+
+    private long freshMask() {
+        long now = System.currentTimeMillis();
+        long mask = 0;
+        for (int column = 0; column < EXCHANGES.length; column++) {
+            long ts = snapshotTimestamps.get(column);
+            if (ts > 0 && now - ts < cacheProperties.getTtlMs()) {
+                mask |= 1L << column;
+            }
+        }
+        return mask;
+    }
+
+    private boolean isScanned(ExchangeType exchangeType) {
+        return config.getExchangesToScan() == null || config.getExchangesToScan().contains(exchangeType);
+    }
+
+    private boolean isScanned(CurrencyPair pair) {
+        if (config.getPairsToScan() != null && !config.getPairsToScan().contains(pair)) {
+            return false;
+        }
+        String counter = pair.getCounter().toString();
+        return (whitelist.isEmpty() || whitelist.contains(counter)) && !blacklist.contains(counter);
+    }
+
+    private void refreshFiltersIfStale() {
+        long now = System.currentTimeMillis();
+        if (now - filtersLoadedAt < properties.getFilterRefreshMs()) {
+            return;
+        }
+        try {
+            whitelist = Set.copyOf(configService.getWhitelist());
+            blacklist = Set.copyOf(configService.getBlacklist());
+            filtersLoadedAt = now;
+        } catch (Exception e) {
+            log.warn("Failed to refresh whitelist/blacklist: {}", e.getMessage());
+        }
+    }
+
+    private static boolean sameQuote(TickerDTO a, TickerDTO b) {
+        return a.bid() == b.bid() && a.ask() == b.ask() && a.volume() == b.volume();
+    }
+
+    private static final class PairBook {
+
+        private final double[] bid = nanColumn();
+        private final double[] ask = nanColumn();
+        private final double[] vol = nanColumn();
+        private boolean inWindow;
+
+        synchronized void set(int column, TickerDTO ticker) {
+            bid[column] = ticker.bid();
+            ask[column] = ticker.ask();
+            vol[column] = ticker.volume();
+        }
+
+        synchronized boolean clear(int column) {
+            boolean present = !Double.isNaN(bid[column]) || !Double.isNaN(ask[column]);
+            bid[column] = Double.NaN;
+            ask[column] = Double.NaN;
+            vol[column] = Double.NaN;
+            return present;
+        }
+
+        private static double[] nanColumn() {
+            double[] column = new double[EXCHANGES.length];
+            Arrays.fill(column, Double.NaN);
+            return column;
+        }
+
+    }
+
+}
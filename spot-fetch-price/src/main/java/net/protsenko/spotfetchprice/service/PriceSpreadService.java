@@ -3,23 +3,33 @@ package net.protsenko.spotfetchprice.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.*;
-import net.protsenko.spotfetchprice.service.provider.TradingInfoProviderFactory;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties;
+import net.protsenko.spotfetchprice.service.depth.DepthAwareSpreadFilter;
+import net.protsenko.spotfetchprice.service.market.MarketMatrix;
+import net.protsenko.spotfetchprice.service.market.MarketMatrixStore;
+import net.protsenko.spotfetchprice.service.provider.TradingInfoEnricher;
+import net.protsenko.spotfetchprice.service.spread.SpreadCandidate;
+import net.protsenko.spotfetchprice.service.spread.SpreadKernel;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PriceSpreadService {
 
+    private static final ExchangeType[] EXCHANGES = ExchangeType.values();
+    private static final int WIDTH = MarketMatrix.WIDTH;
+
     private final ExchangeService exchangeService;
-    private final TradingInfoProviderFactory tradingInfoProviderFactory;
+    private final TradingInfoEnricher tradingInfoEnricher;
+    private final MarketMatrixStore matrixStore;
+    private final ExchangeCacheProperties cacheProperties;
+    private final DepthAwareSpreadFilter depthFilter;
 
     public List<PriceSpreadResult> findMaxArbitrageSpreadsForPairs(SpreadsRq spreadsRq) {
         List<ExchangeType> exchangeTypes = parseExchangeTypes(spreadsRq.exchanges());
@@ -33,37 +43,101 @@ public class PriceSpreadService {
 
         currencyPairs = filterCurrencyPairs(currencyPairs, spreadsRq.whitelist(), spreadsRq.blacklist());
 
+        return findMaxArbitrageSpreadsForPairs(
+                currencyPairs, exchangeTypes,
+                spreadsRq.minVolume(), spreadsRq.minProfitPercent(), spreadsRq.maxProfitPercent()
+        );
+    }
+
+    public List<PriceSpreadResult> findMaxArbitrageSpreadsForPairs(
+            List<CurrencyPair> currencyPairs,
+            List<ExchangeType> exchangeTypes,
+            double minVolume,
+            double minProfitPercent,
+            double maxProfitPercent
+    ) {
+        if (cacheProperties.isBackgroundRefresh()) {
+            return scanMatrix(currencyPairs, exchangeTypes, minVolume, minProfitPercent, maxProfitPercent);
+        }
+
         Map<ExchangeType, Map<CurrencyPair, TickerDTO>> allTickersByExchange =
                 exchangeService.getAllMarketDataForAllExchanges(exchangeTypes, currencyPairs);
 
-        Map<CurrencyPair, Map<ExchangeType, TickerDTO>> tickersByPair = new HashMap<>();
+        Map<CurrencyPair, Integer> rowByPair = new HashMap<>();
+        List<CurrencyPair> rowPairs = new ArrayList<>();
+        for (Map<CurrencyPair, TickerDTO> pairMap : allTickersByExchange.values()) {
+            for (CurrencyPair pair : pairMap.keySet()) {
+                rowByPair.computeIfAbsent(pair, k -> {
+                    rowPairs.add(k);
+                    return rowPairs.size() - 1;
+                });
+            }
+        }
+
+        int cells = rowPairs.size() * WIDTH;
+        double[] bid = new double[cells];
+        double[] ask = new double[cells];
+        double[] vol = new double[cells];
+        Arrays.fill(bid, Double.NaN);
+        Arrays.fill(ask, Double.NaN);
+        Arrays.fill(vol, Double.NaN);
+
         for (var exchangeEntry : allTickersByExchange.entrySet()) {
-            ExchangeType exchangeType = exchangeEntry.getKey();
-            Map<CurrencyPair, TickerDTO> pairMap = exchangeEntry.getValue();
-            for (var pairEntry : pairMap.entrySet()) {
-                CurrencyPair pair = pairEntry.getKey();
+            int column = exchangeEntry.getKey().ordinal();
+            for (var pairEntry : exchangeEntry.getValue().entrySet()) {
+                int cell = rowByPair.get(pairEntry.getKey()) * WIDTH + column;
                 TickerDTO ticker = pairEntry.getValue();
-                if (ticker.bid() > 0 && ticker.ask() > 0 && ticker.volume() >= spreadsRq.minVolume()) {
-                    tickersByPair.computeIfAbsent(pair, k -> new HashMap<>())
-                            .put(exchangeType, ticker);
-                }
+                bid[cell] = ticker.bid();
+                ask[cell] = ticker.ask();
+                vol[cell] = ticker.volume();
             }
         }
 
-        return tickersByPair.entrySet().parallelStream()
-                .map(entry -> {
-                    CurrencyPair pair = entry.getKey();
-                    Map<ExchangeType, TickerDTO> tickerMap = entry.getValue();
-                    Map<String, TickerData> dataMap = tickerMap.entrySet().stream()
-                            .collect(Collectors.toMap(
-                                    e -> e.getKey().name(),
-                                    e -> new TickerData(e.getValue().bid(), e.getValue().ask(), e.getValue().volume())
-                            ));
-                    return findMaxSpread(pair, dataMap, spreadsRq.minProfitPercent(), spreadsRq.maxProfitPercent());
-                })
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+        long[] snapshotTimestamps = exchangeService.getSnapshotTimestamps();
+        List<SpreadCandidate> candidates = IntStream.range(0, rowPairs.size()).parallel()
+                .mapToObj(row -> evaluateRow(
+                        rowPairs.get(row), bid, ask, vol, row * WIDTH, snapshotTimestamps, SpreadKernel.ALL_EXCHANGES,
+                        minVolume, minProfitPercent, maxProfitPercent))
+                .filter(Objects::nonNull)
+                .toList();
+
+        return tradingInfoEnricher.enrich(depthFilter.apply(candidates, minProfitPercent));
+    }
+
+    private List<PriceSpreadResult> scanMatrix(
+            List<CurrencyPair> currencyPairs,
+            List<ExchangeType> exchangeTypes,
+            double minVolume,
+            double minProfitPercent,
+            double maxProfitPercent
+    ) {
+        exchangeService.ensureSnapshots(exchangeTypes);
+        MarketMatrix matrix = matrixStore.current();
+        long exchangeMask = matrix.freshMask(
+                exchangeTypes == null || exchangeTypes.isEmpty() ? List.of(EXCHANGES) : exchangeTypes,
+                cacheProperties.getTtlMs()
+        );
+
+        IntStream rows = currencyPairs == null || currencyPairs.isEmpty()
+                ? IntStream.range(0, matrix.rows())
+                : currencyPairs.stream()
+                .mapToInt(matrixStore::rowOf)
+                .filter(row -> row >= 0 && row < matrix.rows())
+                .distinct();
+
+        long[] snapshotTimestamps = new long[WIDTH];
+        for (int column = 0; column < WIDTH; column++) {
+            snapshotTimestamps[column] = matrix.snapshotTimestamp(column);
+        }
+
+        List<SpreadCandidate> candidates = rows.parallel()
+                .mapToObj(row -> evaluateRow(
+                        matrix.pairAt(row), matrix.bid(), matrix.ask(), matrix.volume(), matrix.offset(row),
+                        snapshotTimestamps, exchangeMask, minVolume, minProfitPercent, maxProfitPercent))
+                .filter(Objects::nonNull)
+                .toList();
+
+        return tradingInfoEnricher.enrich(depthFilter.apply(candidates, minProfitPercent));
     }
 
     private List<CurrencyPair> filterCurrencyPairs(List<CurrencyPair> pairs, List<String> whitelist, List<String> blacklist) {
@@ -87,121 +161,70 @@ public class PriceSpreadService {
             double minProfitPercent,
             double maxProfitPercent
     ) {
+        if (cacheProperties.isBackgroundRefresh()) {
+            return scanMatrix(List.of(pair), exchanges, minVolume, minProfitPercent, maxProfitPercent)
+                    .stream()
+                    .findFirst();
+        }
+
         Map<ExchangeType, Map<CurrencyPair, TickerDTO>> tickersByExchange =
                 exchangeService.getAllMarketDataForAllExchanges(exchanges, List.of(pair));
 
-        Map<String, TickerData> tickerDataMap = new HashMap<>();
+        double[] bid = new double[WIDTH];
+        double[] ask = new double[WIDTH];
+        double[] vol = new double[WIDTH];
+        Arrays.fill(bid, Double.NaN);
+        Arrays.fill(ask, Double.NaN);
+        Arrays.fill(vol, Double.NaN);
 
         for (Map.Entry<ExchangeType, Map<CurrencyPair, TickerDTO>> entry : tickersByExchange.entrySet()) {
-            ExchangeType exchangeType = entry.getKey();
-            Map<CurrencyPair, TickerDTO> pairMap = entry.getValue();
-            TickerDTO ticker = pairMap.get(pair);
-            if (ticker != null && ticker.bid() > 0 && ticker.ask() > 0 && ticker.volume() >= minVolume) {
-                tickerDataMap.put(exchangeType.name(), new TickerData(ticker.bid(), ticker.ask(), ticker.volume()));
+            TickerDTO ticker = entry.getValue().get(pair);
+            if (ticker != null) {
+                int column = entry.getKey().ordinal();
+                bid[column] = ticker.bid();
+                ask[column] = ticker.ask();
+                vol[column] = ticker.volume();
             }
         }
 
-        if (tickerDataMap.size() < 2) {
-            return Optional.empty();
-        }
-
-        return findMaxSpread(pair, tickerDataMap, minProfitPercent, maxProfitPercent);
+        return Optional.ofNullable(evaluateRow(
+                        pair, bid, ask, vol, 0, exchangeService.getSnapshotTimestamps(), SpreadKernel.ALL_EXCHANGES,
+                        minVolume, minProfitPercent, maxProfitPercent))
+                .map(candidate -> depthFilter.apply(List.of(candidate), minProfitPercent))
+                .filter(checked -> !checked.isEmpty())
+                .map(checked -> tradingInfoEnricher.enrich(checked.getFirst()));
     }
 
-    private Optional<PriceSpreadResult> findMaxSpread(
+    private SpreadCandidate evaluateRow(
             CurrencyPair pair,
-            Map<String, TickerData> tickerDataMap,
+            double[] bid,
+            double[] ask,
+            double[] vol,
+            int offset,
+            long[] snapshotTimestamps,
+            long exchangeMask,
+            double minVolume,
             double minProfitPercent,
             double maxProfitPercent
     ) {
-        if (tickerDataMap.size() < 2) {
-            return Optional.empty();
-        }
-
-        Map.Entry<String, TickerData> minAskEntry = null;
-        Map.Entry<String, TickerData> secondMinAskEntry = null;
-
-        Map.Entry<String, TickerData> maxBidEntry = null;
-        Map.Entry<String, TickerData> secondMaxBidEntry = null;
-
-        for (Map.Entry<String, TickerData> entry : tickerDataMap.entrySet()) {
-            if (minAskEntry == null || entry.getValue().ask() < minAskEntry.getValue().ask()) {
-                secondMinAskEntry = minAskEntry;
-                minAskEntry = entry;
-            } else if (secondMinAskEntry == null || entry.getValue().ask() < secondMinAskEntry.getValue().ask()) {
-                secondMinAskEntry = entry;
-            }
-
-            if (maxBidEntry == null || entry.getValue().bid() > maxBidEntry.getValue().bid()) {
-                secondMaxBidEntry = maxBidEntry;
-                maxBidEntry = entry;
-            } else if (secondMaxBidEntry == null || entry.getValue().bid() > secondMaxBidEntry.getValue().bid()) {
-                secondMaxBidEntry = entry;
-            }
+        long best = SpreadKernel.findBest(bid, ask, vol, offset, WIDTH, minVolume, exchangeMask);
+        if (best == SpreadKernel.NO_SPREAD) {
+            return null;
         }
-
-        if (minAskEntry == null) {
-            return Optional.empty();
+        int buy = offset + SpreadKernel.buyIndex(best);
+        int sell = offset + SpreadKernel.sellIndex(best);
+        double profitPercent = SpreadKernel.profitPercent(ask[buy], bid[sell]);
+        if (!SpreadKernel.inWindow(profitPercent, minProfitPercent, maxProfitPercent)) {
+            return null;
         }
-
-        PriceSpreadCandidate bestCandidate;
-
-        if (!minAskEntry.getKey().equals(maxBidEntry.getKey())) {
-            bestCandidate = new PriceSpreadCandidate(
-                    minAskEntry.getKey(), minAskEntry.getValue().ask(), minAskEntry.getValue().volume(),
-                    maxBidEntry.getKey(), maxBidEntry.getValue().bid(), maxBidEntry.getValue().volume()
-            );
-        } else {
-            PriceSpreadCandidate candidate1 = null;
-            if (secondMinAskEntry != null) {
-                candidate1 = new PriceSpreadCandidate(
-                        secondMinAskEntry.getKey(), secondMinAskEntry.getValue().ask(), secondMinAskEntry.getValue().volume(),
-                        maxBidEntry.getKey(), maxBidEntry.getValue().bid(), maxBidEntry.getValue().volume()
-                );
-            }
-
-            PriceSpreadCandidate candidate2 = null;
-            if (secondMaxBidEntry != null) {
-                candidate2 = new PriceSpreadCandidate(
-                        minAskEntry.getKey(), minAskEntry.getValue().ask(), minAskEntry.getValue().volume(),
-                        secondMaxBidEntry.getKey(), secondMaxBidEntry.getValue().bid(), secondMaxBidEntry.getValue().volume()
-                );
-            }
-
-            if (candidate1 != null && candidate2 != null) {
-                bestCandidate = candidate1.spread() > candidate2.spread() ? candidate1 : candidate2;
-            } else if (candidate1 != null) {
-                bestCandidate = candidate1;
-            } else if (candidate2 != null) {
-                bestCandidate = candidate2;
-            } else {
-                return Optional.empty();
-            }
-        }
-
-        if (bestCandidate.spread() <= 0) {
-            return Optional.empty();
-        }
-
-        double profitPercent = (bestCandidate.sellPrice() - bestCandidate.buyPrice()) / bestCandidate.buyPrice() * 100.0;
-        if (profitPercent >= minProfitPercent && profitPercent <= maxProfitPercent) {
-            ExchangeType buyType = ExchangeType.valueOf(bestCandidate.buyExchange());
-            ExchangeType sellType = ExchangeType.valueOf(bestCandidate.sellExchange());
-            TradingInfoDTO buyTradingInfo = tradingInfoProviderFactory.getProvider(buyType)
-                    .getTradingInfo(buyType, pair);
-            TradingInfoDTO sellTradingInfo = tradingInfoProviderFactory.getProvider(sellType)
-                    .getTradingInfo(sellType, pair);
-
-            return Optional.of(new PriceSpreadResult(
-                    pair,
-                    bestCandidate.buyExchange(), bestCandidate.buyPrice(), bestCandidate.buyVolume(), buyTradingInfo,
-                    bestCandidate.sellExchange(), bestCandidate.sellPrice(), bestCandidate.sellVolume(), sellTradingInfo,
-                    bestCandidate.spread(),
-                    profitPercent
-            ));
-        }
-
-        return Optional.empty();
+        return new SpreadCandidate(
+                pair,
+                EXCHANGES[SpreadKernel.buyIndex(best)], ask[buy], vol[buy],
+                EXCHANGES[SpreadKernel.sellIndex(best)], bid[sell], vol[sell],
+                profitPercent,
+                Math.min(snapshotTimestamps[SpreadKernel.buyIndex(best)], snapshotTimestamps[SpreadKernel.sellIndex(best)]),
+                null
+        );
     }
 
     public List<ExchangeType> parseExchangeTypes(List<String> exchanges) {
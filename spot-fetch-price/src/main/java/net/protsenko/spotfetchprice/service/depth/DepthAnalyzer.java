@@ -0,0 +1,79 @@
+package net.protsenko.spotfetchprice.service.depth;
+
+import lombok.experimental.UtilityClass;
+import net.protsenko.spotfetchprice.dto.DepthProfileDTO;
+import net.protsenko.spotfetchprice.dto.NotionalFillDTO;
+import net.protsenko.spotfetchprice.dto.OrderBookLevelDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@UtilityClass
+public class DepthAnalyzer {
+
+    public DepthProfileDTO analyze(
+            List<OrderBookLevelDTO> asks, List<OrderBookLevelDTO> bids, List<Double> notionalsUsd, double quoteUsdPrice
+    ) {
+        double volume = 0;
+        double cost = 0;
+        double proceeds = 0;
+        int a = 0;
+        int b = 0;
+        double askLeft = asks.isEmpty() ? 0 : asks.getFirst().amount();
+        double bidLeft = bids.isEmpty() ? 0 : bids.getFirst().amount();
+        while (a < asks.size() && b < bids.size() && asks.get(a).price() < bids.get(b).price()) {
+            double amount = Math.min(askLeft, bidLeft);
+            volume += amount;
+            cost += amount * asks.get(a).price();
+            proceeds += amount * bids.get(b).price();
+            askLeft -= amount;
+            bidLeft -= amount;
+            if (askLeft <= 0 && ++a < asks.size()) {
+                askLeft = asks.get(a).amount();
+            }
+            if (bidLeft <= 0 && ++b < bids.size()) {
+                bidLeft = bids.get(b).amount();
+            }
+        }
+
+        List<NotionalFillDTO> fills = new ArrayList<>(notionalsUsd.size());
+        for (double notionalUsd : notionalsUsd) {
+            fills.add(fill(asks, bids, notionalUsd, notionalUsd / quoteUsdPrice));
+        }
+        return new DepthProfileDTO(volume, cost * quoteUsdPrice, cost > 0 ? (proceeds - cost) / cost * 100 : 0, fills);
+    }
+
+    private NotionalFillDTO fill(
+            List<OrderBookLevelDTO> asks, List<OrderBookLevelDTO> bids, double notionalUsd, double notional
+    ) {
+        double spent = 0;
+        double bought = 0;
+        for (OrderBookLevelDTO ask : asks) {
+            double amount = Math.min(ask.amount(), (notional - spent) / ask.price());
+            spent += amount * ask.price();
+            bought += amount;
+            if (spent >= notional * (1 - 1e-9)) break;
+        }
+
+        double sold = 0;
+        double proceeds = 0;
+        for (OrderBookLevelDTO bid : bids) {
+            double amount = Math.min(bid.amount(), bought - sold);
+            sold += amount;
+            proceeds += amount * bid.price();
+            if (sold >= bought * (1 - 1e-9)) break;
+        }
+
+        boolean filled = bought > 0
+                && spent >= notional * (1 - 1e-9)
+                && sold >= bought * (1 - 1e-9);
+        return new NotionalFillDTO(
+                notionalUsd,
+                bought > 0 ? spent / bought : 0,
+                sold > 0 ? proceeds / sold : 0,
+                filled ? (proceeds - spent) / spent * 100 : 0,
+                filled
+        );
+    }
+
+}
@@ -0,0 +1,147 @@
+package net.protsenko.spotfetchprice.service.depth;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.DepthProfileDTO;
+import net.protsenko.spotfetchprice.dto.NotionalFillDTO;
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
+import net.protsenko.spotfetchprice.props.DepthProperties;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.market.UsdPriceResolver;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.spread.SpreadCandidate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+public class DepthAwareSpreadFilter {
+
+    private final DepthProperties properties;
+    private final OrderBookCache orderBookCache;
+    private final UsdPriceResolver usdPriceResolver;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    public DepthAwareSpreadFilter(
+            DepthProperties properties,
+            OrderBookCache orderBookCache,
+            UsdPriceResolver usdPriceResolver,
+            ExchangeMetrics exchangeMetrics
+    ) {
+        this.properties = properties;
+        this.orderBookCache = orderBookCache;
+        this.usdPriceResolver = usdPriceResolver;
+        this.executor = exchangeMetrics.virtualThreadExecutor("depth-filter");
+        this.permits = new Semaphore(Math.max(1, properties.getConcurrency()));
+    }
+
+    public List<SpreadCandidate> apply(List<SpreadCandidate> candidates, double minProfitPercent) {
+        if (!properties.isEnabled() || candidates.isEmpty()) {
+            return candidates;
+        }
+
+        List<SpreadCandidate> ranked = new ArrayList<>(candidates.size());
+        List<SpreadCandidate> unconvertible = new ArrayList<>();
+        Map<String, Double> quoteUsdPrices = new HashMap<>();
+        for (SpreadCandidate candidate : candidates) {
+            double quoteUsdPrice = quoteUsdPrices.computeIfAbsent(
+                    candidate.pair().getCounter().getCurrencyCode(), usdPriceResolver::usdPrice);
+            (quoteUsdPrice > 0 ? ranked : unconvertible).add(candidate);
+        }
+        ranked.sort(Comparator.comparingDouble(SpreadCandidate::profitPercent).reversed());
+        int topK = Math.min(properties.getTopK(), ranked.size());
+
+        List<Future<SpreadCandidate>> analyses = new ArrayList<>(topK);
+        for (SpreadCandidate candidate : ranked.subList(0, topK)) {
+            double quoteUsdPrice = quoteUsdPrices.get(candidate.pair().getCounter().getCurrencyCode());
+            analyses.add(executor.submit(() -> analyze(candidate, quoteUsdPrice)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getTimeoutMs());
+        List<SpreadCandidate> result = new ArrayList<>(candidates.size());
+        int dropped = 0;
+        for (int i = 0; i < topK; i++) {
+            SpreadCandidate candidate = await(analyses.get(i), ranked.get(i), deadline);
+            if (properties.isDropUnfillable() && !isExecutable(candidate.depth(), minProfitPercent)) {
+                dropped++;
+                continue;
+            }
+            result.add(candidate);
+        }
+        result.addAll(ranked.subList(topK, ranked.size()));
+        result.addAll(unconvertible);
+
+        if (dropped > 0) {
+            log.debug("Depth check dropped {} of {} top candidates", dropped, topK);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        executor.close();
+    }
+
+    private SpreadCandidate analyze(SpreadCandidate candidate, double quoteUsdPrice) throws Exception {
+        Future<OrderBookDTO> sellBook = executor.submit(() -> fetch(candidate.sellExchange(), candidate));
+        try {
+            OrderBookDTO buyBook = fetch(candidate.buyExchange(), candidate);
+            DepthProfileDTO depth = DepthAnalyzer.analyze(
+                    buyBook.asks(), sellBook.get().bids(), properties.getNotionalsUsd(), quoteUsdPrice);
+            return candidate.withDepth(depth);
+        } catch (Exception e) {
+            sellBook.cancel(true);
+            throw e;
+        }
+    }
+
+    private OrderBookDTO fetch(ExchangeType exchange, SpreadCandidate candidate) throws Exception {
+        permits.acquire();
+        try {
+            return orderBookCache.get(exchange, candidate.pair());
+        } finally {
+            permits.release();
+        }
+    }
+
+    private SpreadCandidate await(Future<SpreadCandidate> analysis, SpreadCandidate candidate, long deadline) {
+        try {
+            return analysis.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            analysis.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            analysis.cancel(true);
+            log.debug("Depth check for {} {}->{} timed out",
+                    candidate.pair(), candidate.buyExchange(), candidate.sellExchange());
+        } catch (Exception e) {
+            log.debug("Depth check for {} {}->{} unavailable: {}",
+                    candidate.pair(), candidate.buyExchange(), candidate.sellExchange(), e.getMessage());
+        }
+        return candidate;
+    }
+
+    private boolean isExecutable(DepthProfileDTO depth, double minProfitPercent) {
+        if (depth == null) {
+            return true;
+        }
+        if (depth.fills().isEmpty()) {
+            return depth.executableNotionalUsd() > 0;
+        }
+        NotionalFillDTO smallest = depth.smallestFill();
+        return smallest.filled() && smallest.netProfitPercent() >= minProfitPercent;
+    }
+
+}
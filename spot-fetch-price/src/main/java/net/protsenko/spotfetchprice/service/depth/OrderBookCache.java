@@ -0,0 +1,58 @@
+package net.protsenko.spotfetchprice.service.depth;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
+import net.protsenko.spotfetchprice.props.DepthProperties;
+import net.protsenko.spotfetchprice.service.ExchangeService;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.util.SingleFlight;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class OrderBookCache {
+
+    private final ExchangeService exchangeService;
+    private final DepthProperties properties;
+    private final Map<BookKey, CachedBook> books = new ConcurrentHashMap<>();
+    private final SingleFlight<BookKey, OrderBookDTO> flights;
+
+    public OrderBookCache(ExchangeService exchangeService, DepthProperties properties, MeterRegistry meterRegistry) {
+        this.exchangeService = exchangeService;
+        this.properties = properties;
+        this.flights = new SingleFlight<>("order-books", meterRegistry);
+    }
+
+    public OrderBookDTO get(ExchangeType exchangeType, CurrencyPair pair) throws Exception {
+        BookKey key = new BookKey(exchangeType, pair);
+        CachedBook cached = books.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.fetchedAt() < properties.getCacheMs()) {
+            return cached.book();
+        }
+        return flights.execute(key, () -> {
+            OrderBookDTO book = exchangeService.getOrderBook(exchangeType, pair, properties.getLevels());
+            if (book == null || book.isEmpty()) {
+                throw new IOException("Пустой стакан " + exchangeType + " для " + pair);
+            }
+            books.put(key, new CachedBook(book, System.currentTimeMillis()));
+            evictExpired();
+            return book;
+        });
+    }
+
+    private void evictExpired() {
+        long expiredBefore = System.currentTimeMillis() - properties.getCacheMs();
+        books.values().removeIf(cached -> cached.fetchedAt() < expiredBefore);
+    }
+
+    private record BookKey(ExchangeType exchange, CurrencyPair pair) {
+    }
+
+    private record CachedBook(OrderBookDTO book, long fetchedAt) {
+    }
+
+}
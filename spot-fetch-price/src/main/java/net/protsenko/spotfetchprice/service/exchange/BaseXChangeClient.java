@@ -1,34 +1,50 @@
 package net.protsenko.spotfetchprice.service.exchange;
 
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
 import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.mapper.OrderBookMapper;
 import net.protsenko.spotfetchprice.mapper.TickerMapper;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.knowm.xchange.Exchange;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBook;
 import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.exceptions.RateLimitExceededException;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 public abstract class BaseXChangeClient implements ExchangeClient {
 
     protected final Exchange exchange;
+    protected final ExchangeRateLimiter rateLimiter;
 
-    public BaseXChangeClient(Exchange exchange) {
+    public BaseXChangeClient(Exchange exchange, ExchangeRateLimiter rateLimiter) {
         this.exchange = exchange;
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
-    public List<TickerDTO> getTickers(List<CurrencyPair> instruments) throws IOException {
-        List<Ticker> tickers = exchange.getMarketDataService().getTickers(null);
+    public List<TickerDTO> getTickers(Set<CurrencyPair> instruments) throws IOException {
+        List<Ticker> tickers = limited(RateLimitEndpoint.TICKERS, () -> exchange.getMarketDataService().getTickers(null));
         return tickers.stream()
                 .filter(ticker -> instruments == null || instruments.isEmpty() || instruments.contains(ticker.getInstrument()))
                 .map(TickerMapper::fromTicker)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public OrderBookDTO getOrderBook(CurrencyPair pair, int depth) throws IOException {
+        OrderBook orderBook = limited(RateLimitEndpoint.ORDER_BOOK,
+                () -> exchange.getMarketDataService().getOrderBook(pair, depth));
+        return OrderBookMapper.fromOrderBook(orderBook, depth);
+    }
+
     @Override
     public List<CurrencyPair> getCurrencyPairs() {
         return exchange.getExchangeInstruments().stream()
@@ -36,4 +52,19 @@ public abstract class BaseXChangeClient implements ExchangeClient {
                 .map(instr -> (CurrencyPair) instr)
                 .collect(Collectors.toList());
     }
+
+    protected <T> T limited(RateLimitEndpoint endpoint, XChangeCall<T> call) throws IOException {
+        rateLimiter.acquire(getExchangeType(), endpoint);
+        try {
+            return call.execute();
+        } catch (RateLimitExceededException e) {
+            rateLimiter.onThrottled(getExchangeType());
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    protected interface XChangeCall<T> {
+        T execute() throws IOException;
+    }
 }
\ No newline at end of file
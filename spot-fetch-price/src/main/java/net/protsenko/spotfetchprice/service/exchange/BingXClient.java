@@ -3,30 +3,51 @@ package net.protsenko.spotfetchprice.service.exchange;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
 import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.mapper.OrderBookMapper;
 import net.protsenko.spotfetchprice.props.BingXApiProperties;
+import net.protsenko.spotfetchprice.props.InstrumentCacheProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Component
 public class BingXClient implements ExchangeClient {
 
+    private static final Set<String> TICKER_FIELDS = Set.of("symbol", "lastPrice", "bidPrice", "askPrice", "volume");
+
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final InstrumentCache instruments;
     private final BingXApiProperties bingxApiProperties;
 
-    public BingXClient(BingXApiProperties bingxApiProperties, ObjectMapper objectMapper) {
+    public BingXClient(
+            BingXApiProperties bingxApiProperties,
+            ObjectMapper objectMapper,
+            InstrumentCacheProperties instrumentCacheProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
         this.bingxApiProperties = bingxApiProperties;
         this.objectMapper = objectMapper;
+        this.instruments = new InstrumentCache(
+                ExchangeType.BINGX, this::fetchCurrencyPairs, BingXClient::symbolOf, instrumentCacheProperties);
         this.webClient = WebClient.builder()
                 .baseUrl(bingxApiProperties.getBaseUrl())
                 .exchangeStrategies(ExchangeStrategies.builder()
@@ -35,50 +56,28 @@ public class BingXClient implements ExchangeClient {
                                 .maxInMemorySize(bingxApiProperties.getMaxInMemorySize()))
                         .build())
                 .clientConnector(bingxApiProperties.createConnector())
+                .filter(rateLimiter.filter(ExchangeType.BINGX))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.BINGX))
                 .build();
     }
 
     @Override
-    public List<TickerDTO> getTickers(List<CurrencyPair> pairsFilter) {
+    public List<TickerDTO> getTickers(Set<CurrencyPair> pairsFilter) {
         try {
+            instruments.pairs();
             String url = bingxApiProperties.getTickersPath() + "?timestamp=" + System.currentTimeMillis();
 
-            String response = webClient.get()
+            Flux<DataBuffer> body = webClient.get()
                     .uri(url)
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.TICKERS)
                     .header("User-Agent", bingxApiProperties.getUserAgent())
                     .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(60))
-                    .onErrorReturn("")
-                    .block();
-
-            if (response == null || response.isEmpty()) return Collections.emptyList();
+                    .bodyToFlux(DataBuffer.class)
+                    .timeout(Duration.ofSeconds(60));
 
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode data = root.get("data");
-            if (data == null || !data.isArray() || data.isEmpty()) {
+            List<TickerDTO> result = readTickers(body, pairsFilter);
+            if (result.isEmpty()) {
                 log.warn("BingX: пустой или некорректный ответ (data=null)");
-                return Collections.emptyList();
-            }
-
-            List<TickerDTO> result = new ArrayList<>();
-            for (JsonNode ticker : data) {
-                String symbol = ticker.path("symbol").asText("");
-                CurrencyPair pair = parseBingxSymbolSafe(symbol);
-                if (pair == null) continue;
-
-                if (pairsFilter == null || pairsFilter.isEmpty() || pairsFilter.contains(pair)) {
-                    double last = getDoubleSafe(ticker, "lastPrice");
-                    double bid = getDoubleSafe(ticker, "bidPrice");
-                    double ask = getDoubleSafe(ticker, "askPrice");
-                    double volume = getDoubleSafe(ticker, "volume");
-
-                    result.add(new TickerDTO(
-                            pair.getBase().getCurrencyCode(),
-                            pair.getCounter().getCurrencyCode(),
-                            last, bid, ask, volume, 0
-                    ));
-                }
             }
             return result;
         } catch (Exception e) {
@@ -87,12 +86,44 @@ public class BingXClient implements ExchangeClient {
         }
     }
 
+    public List<TickerDTO> readTickers(Flux<DataBuffer> body, Set<CurrencyPair> pairsFilter) throws IOException {
+        List<TickerDTO> result = new ArrayList<>();
+        JsonArrayStreamReader reader = new JsonArrayStreamReader(objectMapper.getFactory(), "data", TICKER_FIELDS, fields -> {
+            String symbol = fields.get("symbol");
+            CurrencyPair pair = instruments.pairOf(symbol);
+            if (pair == null) pair = parseBingxSymbolSafe(symbol);
+            if (pair == null) return;
+
+            if (pairsFilter == null || pairsFilter.isEmpty() || pairsFilter.contains(pair)) {
+                double last = JsonArrayStreamReader.toDouble(fields.get("lastPrice"));
+                double bid = JsonArrayStreamReader.toDouble(fields.get("bidPrice"));
+                double ask = JsonArrayStreamReader.toDouble(fields.get("askPrice"));
+                double volume = JsonArrayStreamReader.toDouble(fields.get("volume"));
+
+                result.add(new TickerDTO(
+                        pair.getBase().getCurrencyCode(),
+                        pair.getCounter().getCurrencyCode(),
+                        last, bid, ask, volume, 0
+                ));
+            }
+        });
+
+        body.doOnNext(reader::feed).then().block();
+        reader.finish();
+        return result;
+    }
+
     @Override
     public List<CurrencyPair> getCurrencyPairs() {
+        return instruments.pairs();
+    }
+
+    private List<CurrencyPair> fetchCurrencyPairs() {
         try {
             String url = bingxApiProperties.getSymbolsPath();
             String response = webClient.get()
                     .uri(url)
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.SYMBOLS)
                     .header("User-Agent", bingxApiProperties.getUserAgent())
                     .retrieve()
                     .bodyToMono(String.class)
@@ -123,6 +154,28 @@ public class BingXClient implements ExchangeClient {
         }
     }
 
+    @Override
+    public OrderBookDTO getOrderBook(CurrencyPair pair, int depth) throws IOException {
+        String response = webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(bingxApiProperties.getDepthPath())
+                        .queryParam("symbol", symbolOf(pair))
+                        .queryParam("limit", depth)
+                        .build())
+                .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.ORDER_BOOK)
+                .header("User-Agent", bingxApiProperties.getUserAgent())
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(10))
+                .block();
+        if (response == null || response.isEmpty()) {
+            throw new IOException("Пустой ответ стакана BingX для " + pair);
+        }
+
+        JsonNode book = objectMapper.readTree(response).path("data");
+        return OrderBookMapper.fromLevels(book.path("bids"), book.path("asks"), depth);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.BINGX;
@@ -137,12 +190,8 @@ public class BingXClient implements ExchangeClient {
         return null;
     }
 
-    private double getDoubleSafe(JsonNode node, String field) {
-        try {
-            return node.path(field).asDouble(0.0);
-        } catch (Exception e) {
-            log.warn("BingX: не удалось распарсить поле '{}' как double: {}", field, e.getMessage());
-            return 0.0;
-        }
+    private static String symbolOf(CurrencyPair pair) {
+        return pair.getBase().getCurrencyCode() + "-" + pair.getCounter().getCurrencyCode();
     }
-}
+
+}
\ No newline at end of file
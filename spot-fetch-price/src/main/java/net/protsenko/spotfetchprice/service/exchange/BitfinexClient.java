@@ -1,19 +1,34 @@
 package net.protsenko.spotfetchprice.service.exchange;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.TickerDTO;
 import net.protsenko.spotfetchprice.mapper.TickerMapper;
+import net.protsenko.spotfetchprice.props.BitfinexApiProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.knowm.xchange.Exchange;
 import org.knowm.xchange.bitfinex.BitfinexExchange;
 import org.knowm.xchange.bitfinex.service.BitfinexMarketDataServiceRaw;
 import org.knowm.xchange.bitfinex.v2.dto.marketdata.BitfinexTicker;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
 
-import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import static net.protsenko.spotfetchprice.util.TikersUtils.partition;
 
@@ -21,46 +36,154 @@ import static net.protsenko.spotfetchprice.util.TikersUtils.partition;
 @Slf4j
 public class BitfinexClient extends BaseXChangeClient {
 
-    public BitfinexClient(Exchange exchange) {
-        super(exchange);
+    private static final int BID = 1;
+    private static final int ASK = 3;
+    private static final int LAST_PRICE = 7;
+    private static final int VOLUME = 8;
+
+    private final BitfinexApiProperties apiProperties;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+
+    public BitfinexClient(
+            Exchange exchange,
+            BitfinexApiProperties apiProperties,
+            ObjectMapper objectMapper,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
+        super(exchange, rateLimiter);
+        this.apiProperties = apiProperties;
+        this.objectMapper = objectMapper;
+        this.webClient = WebClient.builder()
+                .baseUrl(apiProperties.getBaseUrl())
+                .exchangeStrategies(ExchangeStrategies.builder()
+                        .codecs(configurer -> configurer
+                                .defaultCodecs()
+                                .maxInMemorySize(apiProperties.getMaxInMemorySize()))
+                        .build())
+                .clientConnector(apiProperties.createConnector())
+                .filter(rateLimiter.filter(ExchangeType.BITFINEX))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.BITFINEX))
+                .build();
     }
 
     @Override
-    public List<TickerDTO> getTickers(List<CurrencyPair> instruments) {
+    public List<TickerDTO> getTickers(Set<CurrencyPair> instruments) {
+        if (apiProperties.isBulkTickers()) {
+            List<TickerDTO> tickers = fetchAllTickers(instruments);
+            if (!tickers.isEmpty()) return tickers;
+            log.warn("Bulk-запрос тикеров Bitfinex не дал результата, загружаем батчами");
+        }
+        return fetchTickerBatches(instruments);
+    }
+
+    private List<TickerDTO> fetchAllTickers(Set<CurrencyPair> instruments) {
+        try {
+            String response = webClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path(apiProperties.getTickersPath())
+                            .queryParam("symbols", "ALL")
+                            .build())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.TICKERS)
+                    .header("User-Agent", apiProperties.getUserAgent())
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .timeout(Duration.ofSeconds(apiProperties.getResponseTimeoutSeconds()))
+                    .block();
+
+            if (response == null || response.isEmpty()) return Collections.emptyList();
+
+            JsonNode rows = objectMapper.readTree(response);
+            if (!rows.isArray()) {
+                log.warn("Некорректный ответ tickers Bitfinex");
+                return Collections.emptyList();
+            }
+
+            List<TickerDTO> result = new ArrayList<>(rows.size());
+            for (JsonNode row : rows) {
+                String symbol = row.path(0).asText();
+                if (!symbol.startsWith("t") || row.size() <= VOLUME) continue;
+
+                CurrencyPair pair;
+                try {
+                    pair = TickerMapper.parseBitfinexSymbol(symbol);
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                if (instruments != null && !instruments.isEmpty() && !instruments.contains(pair)) continue;
+
+                result.add(new TickerDTO(
+                        pair.getBase().getCurrencyCode(),
+                        pair.getCounter().getCurrencyCode(),
+                        row.path(LAST_PRICE).asDouble(),
+                        row.path(BID).asDouble(),
+                        row.path(ASK).asDouble(),
+                        row.path(VOLUME).asDouble(),
+                        0L
+                ));
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("Ошибка загрузки тикеров Bitfinex: {}", e.getMessage(), e);
+            return Collections.emptyList();
+        }
+    }
+
+    private List<TickerDTO> fetchTickerBatches(Set<CurrencyPair> instruments) {
         BitfinexExchange bitfinexExchange = (BitfinexExchange) exchange;
         @SuppressWarnings("UnstableApiUsage")
         BitfinexMarketDataServiceRaw rawService = new BitfinexMarketDataServiceRaw(
                 bitfinexExchange, bitfinexExchange.getResilienceRegistries()
         );
 
-        List<CurrencyPair> pairsToQuery = instruments == null ? getCurrencyPairs() : instruments;
+        List<CurrencyPair> pairsToQuery = instruments == null || instruments.isEmpty()
+                ? getCurrencyPairs()
+                : new ArrayList<>(instruments);
 
-        int batchSize = 70;
-        List<TickerDTO> result = new java.util.ArrayList<>();
-        for (List<CurrencyPair> batch : partition(pairsToQuery, batchSize)) {
-            try {
-                BitfinexTicker[] bitfinexTickers = rawService.getBitfinexTickers(batch);
-                List<TickerDTO> batchTickers = Arrays.stream(bitfinexTickers)
-                        .filter(ticker -> !ticker.getSymbol().startsWith("f"))
-                        .map(TickerMapper::fromBitfinexV2Ticker)
-                        .filter(Objects::nonNull)
-                        .toList();
-                result.addAll(batchTickers);
-            } catch (IOException e) {
-                log.error("Error fetching tickers batch from Bitfinex: {}", e.getMessage(), e);
+        Semaphore permits = new Semaphore(Math.max(1, apiProperties.getBatchConcurrency()));
+        List<Future<List<TickerDTO>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<CurrencyPair> batch : partition(pairsToQuery, apiProperties.getBatchSize())) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return fetchTickerBatch(rawService, batch);
+                    } finally {
+                        permits.release();
+                    }
+                }));
             }
+        }
+
+        List<TickerDTO> result = new ArrayList<>();
+        for (Future<List<TickerDTO>> future : futures) {
             try {
-                Thread.sleep(1200);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+                result.addAll(future.get());
+            } catch (Exception e) {
+                log.error("Error fetching tickers batch from Bitfinex: {}", e.getMessage(), e);
             }
         }
         return result;
     }
 
+    private List<TickerDTO> fetchTickerBatch(BitfinexMarketDataServiceRaw rawService, List<CurrencyPair> batch) {
+        try {
+            BitfinexTicker[] bitfinexTickers = limited(RateLimitEndpoint.TICKERS, () -> rawService.getBitfinexTickers(batch));
+            return Arrays.stream(bitfinexTickers)
+                    .filter(ticker -> !ticker.getSymbol().startsWith("f"))
+                    .map(TickerMapper::fromBitfinexV2Ticker)
+                    .filter(Objects::nonNull)
+                    .toList();
+        } catch (Exception e) {
+            log.error("Error fetching tickers batch from Bitfinex: {}", e.getMessage(), e);
+            return Collections.emptyList();
+        }
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.BITFINEX;
     }
 
-}
\ No newline at end of file
+}
@@ -1,16 +1,24 @@
 package net.protsenko.spotfetchprice.service.exchange;
 
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
 import net.protsenko.spotfetchprice.dto.TickerDTO;
 import net.protsenko.spotfetchprice.service.ExchangeType;
 import org.knowm.xchange.currency.CurrencyPair;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 public interface ExchangeClient {
-    List<TickerDTO> getTickers(List<CurrencyPair> instruments) throws IOException;
+    List<TickerDTO> getTickers(Set<CurrencyPair> instruments) throws IOException;
 
     List<CurrencyPair> getCurrencyPairs() throws IOException;
 
     ExchangeType getExchangeType();
+
+    OrderBookDTO getOrderBook(CurrencyPair pair, int depth) throws IOException;
+
+    default boolean isStreaming() {
+        return false;
+    }
 }
\ No newline at end of file
@@ -3,10 +3,16 @@ package net.protsenko.spotfetchprice.service.exchange;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.props.BingXApiProperties;
+import net.protsenko.spotfetchprice.props.BitfinexApiProperties;
 import net.protsenko.spotfetchprice.props.HuobiApiProperties;
+import net.protsenko.spotfetchprice.props.InstrumentCacheProperties;
 import net.protsenko.spotfetchprice.props.MEXCApiProperties;
 import net.protsenko.spotfetchprice.props.OKXApiProperties;
+import net.protsenko.spotfetchprice.props.StreamProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.stream.*;
 import org.knowm.xchange.Exchange;
 import org.springframework.stereotype.Component;
 
@@ -21,32 +27,72 @@ public class ExchangeClientFactory {
     private final MEXCApiProperties mexcApiProperties;
     private final OKXApiProperties okxApiProperties;
     private final HuobiApiProperties huobiApiProperties;
+    private final BitfinexApiProperties bitfinexApiProperties;
+    private final StreamProperties streamProperties;
+    private final InstrumentCacheProperties instrumentCacheProperties;
+    private final ExchangeRateLimiter rateLimiter;
+    private final ExchangeMetrics exchangeMetrics;
 
     public ExchangeClientFactory(
             ObjectMapper objectMapper,
             BingXApiProperties bingXApiProperties,
             MEXCApiProperties mexcApiProperties,
             OKXApiProperties okxApiProperties,
-            HuobiApiProperties huobiApiProperties
+            HuobiApiProperties huobiApiProperties,
+            BitfinexApiProperties bitfinexApiProperties,
+            StreamProperties streamProperties,
+            InstrumentCacheProperties instrumentCacheProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
     ) {
         this.objectMapper = objectMapper;
         this.bingXApiProperties = bingXApiProperties;
         this.mexcApiProperties = mexcApiProperties;
         this.okxApiProperties = okxApiProperties;
         this.huobiApiProperties = huobiApiProperties;
+        this.bitfinexApiProperties = bitfinexApiProperties;
+        this.streamProperties = streamProperties;
+        this.instrumentCacheProperties = instrumentCacheProperties;
+        this.rateLimiter = rateLimiter;
+        this.exchangeMetrics = exchangeMetrics;
     }
 
     public ExchangeClient createClient(ExchangeType exchangeType) throws IOException {
+        ExchangeClient restClient = createRestClient(exchangeType);
+        if (!streamProperties.isEnabled() || !streamProperties.getExchanges().contains(exchangeType)) {
+            return restClient;
+        }
+        BookTickerChannel channel = createChannel(exchangeType);
+        if (channel == null) {
+            log.warn("Стриминг для {} не поддерживается, используется REST", exchangeType);
+            return restClient;
+        }
+        return new StreamingExchangeClient(restClient, channel, streamProperties, objectMapper);
+    }
+
+    private BookTickerChannel createChannel(ExchangeType exchangeType) {
+        return switch (exchangeType) {
+            case OKX -> new OKXBookTickerChannel(objectMapper);
+            case BYBIT -> new BybitBookTickerChannel(objectMapper);
+            case MEXC -> new MEXCBookTickerChannel(objectMapper);
+            case BINGX -> new BingXBookTickerChannel(objectMapper);
+            case HUOBI -> new HuobiBookTickerChannel(objectMapper);
+            case KUCOIN -> new KucoinBookTickerChannel(objectMapper);
+            default -> null;
+        };
+    }
+
+    private ExchangeClient createRestClient(ExchangeType exchangeType) throws IOException {
         return switch (exchangeType) {
-            case MEXC -> new MEXCClient(mexcApiProperties, objectMapper);
-            case OKX -> new OKXClient(okxApiProperties, objectMapper);
-            case BINGX -> new BingXClient(bingXApiProperties, objectMapper);
-            case HUOBI -> new HuobiClient(huobiApiProperties, objectMapper);
+            case MEXC -> new MEXCClient(mexcApiProperties, objectMapper, instrumentCacheProperties, rateLimiter, exchangeMetrics);
+            case OKX -> new OKXClient(okxApiProperties, objectMapper, instrumentCacheProperties, rateLimiter, exchangeMetrics);
+            case BINGX -> new BingXClient(bingXApiProperties, objectMapper, instrumentCacheProperties, rateLimiter, exchangeMetrics);
+            case HUOBI -> new HuobiClient(huobiApiProperties, objectMapper, instrumentCacheProperties, rateLimiter, exchangeMetrics);
             case KUCOIN -> {
                 Exchange exchange = exchangeType.createExchange();
                 try {
                     exchange.remoteInit();
-                    yield new KucoinClient(exchange);
+                    yield new KucoinClient(exchange, rateLimiter);
                 } catch (Exception e) {
                     log.error("Ошибка инициализации Kucoin: {}", e.getMessage());
                     throw new IOException("Failed to initialize Kucoin", e);
@@ -56,7 +102,7 @@ public class ExchangeClientFactory {
                 Exchange exchange = exchangeType.createExchange();
                 try {
                     exchange.remoteInit();
-                    yield new BitfinexClient(exchange);
+                    yield new BitfinexClient(exchange, bitfinexApiProperties, objectMapper, rateLimiter, exchangeMetrics);
                 } catch (Exception e) {
                     log.error("Ошибка инициализации Bitfinex: {}", e.getMessage());
                     throw new IOException("Failed to initialize Bitfinex", e);
@@ -66,7 +112,7 @@ public class ExchangeClientFactory {
                 Exchange exchange = exchangeType.createExchange();
                 try {
                     exchange.remoteInit();
-                    yield new BaseXChangeClient(exchange) {
+                    yield new BaseXChangeClient(exchange, rateLimiter) {
                         @Override
                         public ExchangeType getExchangeType() {
                             return exchangeType;
@@ -3,30 +3,56 @@ package net.protsenko.spotfetchprice.service.exchange;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
 import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.mapper.OrderBookMapper;
 import net.protsenko.spotfetchprice.props.HuobiApiProperties;
+import net.protsenko.spotfetchprice.props.InstrumentCacheProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Component
 public class HuobiClient implements ExchangeClient {
 
+    private static final Set<String> TICKER_FIELDS = Set.of("symbol", "close", "bid", "ask", "vol");
+
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
     private final HuobiApiProperties apiProperties;
-
-    public HuobiClient(HuobiApiProperties apiProperties, ObjectMapper objectMapper) {
+    private final InstrumentCache instruments;
+
+    public HuobiClient(
+            HuobiApiProperties apiProperties,
+            ObjectMapper objectMapper,
+            InstrumentCacheProperties instrumentCacheProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
         this.apiProperties = apiProperties;
         this.objectMapper = objectMapper;
+        this.instruments = new InstrumentCache(
+                ExchangeType.HUOBI,
+                this::fetchCurrencyPairs,
+                HuobiClient::symbolOf,
+                instrumentCacheProperties
+        );
         this.webClient = WebClient.builder()
                 .baseUrl(apiProperties.getBaseUrl())
                 .exchangeStrategies(ExchangeStrategies.builder()
@@ -35,55 +61,27 @@ public class HuobiClient implements ExchangeClient {
                                 .maxInMemorySize(apiProperties.getMaxInMemorySize()))
                         .build())
                 .clientConnector(apiProperties.createConnector())
+                .filter(rateLimiter.filter(ExchangeType.HUOBI))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.HUOBI))
                 .build();
     }
 
     @Override
-    public List<TickerDTO> getTickers(List<CurrencyPair> pairsFilter) {
+    public List<TickerDTO> getTickers(Set<CurrencyPair> pairsFilter) {
         try {
-            String response = webClient.get()
+            instruments.pairs();
+            Map<String, CurrencyPair> symbolToPair = instruments.symbolIndex();
+
+            Flux<DataBuffer> body = webClient.get()
                     .uri(apiProperties.getTickersPath())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.TICKERS)
                     .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .onErrorReturn("")
-                    .block();
+                    .bodyToFlux(DataBuffer.class)
+                    .timeout(Duration.ofSeconds(30));
 
-            if (response == null || response.isEmpty()) return Collections.emptyList();
-
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode data = root.get("data");
-            if (data == null || !data.isArray() || data.isEmpty()) {
+            List<TickerDTO> result = readTickers(body, symbolToPair, pairsFilter);
+            if (result.isEmpty()) {
                 log.warn("Huobi: пустой/некорректный ответ на тикеры");
-                return Collections.emptyList();
-            }
-
-            List<CurrencyPair> allPairs = getCurrencyPairs();
-            var symbolToPair = new java.util.HashMap<String, CurrencyPair>(allPairs.size());
-            for (CurrencyPair p : allPairs) {
-                symbolToPair.put((p.getBase().getCurrencyCode() + p.getCounter().getCurrencyCode()).toLowerCase(), p);
-            }
-
-            List<TickerDTO> result = new ArrayList<>();
-            for (JsonNode ticker : data) {
-                String symbol = ticker.path("symbol").asText("");
-                if (symbol.isEmpty()) continue;
-
-                CurrencyPair pair = symbolToPair.get(symbol.toLowerCase());
-                if (pair == null) continue;
-
-                if (pairsFilter == null || pairsFilter.isEmpty() || pairsFilter.contains(pair)) {
-                    double last = ticker.path("close").asDouble(0.0);
-                    double bid = ticker.path("bid").asDouble(0.0);
-                    double ask = ticker.path("ask").asDouble(0.0);
-                    double volume = ticker.path("vol").asDouble(0.0);
-
-                    result.add(new TickerDTO(
-                            pair.getBase().getCurrencyCode(),
-                            pair.getCounter().getCurrencyCode(),
-                            last, bid, ask, volume, 0
-                    ));
-                }
             }
             return result;
         } catch (Exception e) {
@@ -92,11 +90,48 @@ public class HuobiClient implements ExchangeClient {
         }
     }
 
+    public List<TickerDTO> readTickers(
+            Flux<DataBuffer> body,
+            Map<String, CurrencyPair> symbolToPair,
+            Set<CurrencyPair> pairsFilter
+    ) throws IOException {
+        List<TickerDTO> result = new ArrayList<>();
+        JsonArrayStreamReader reader = new JsonArrayStreamReader(objectMapper.getFactory(), "data", TICKER_FIELDS, fields -> {
+            String symbol = fields.getOrDefault("symbol", "");
+            if (symbol.isEmpty()) return;
+
+            CurrencyPair pair = symbolToPair.get(symbol.toLowerCase());
+            if (pair == null) return;
+
+            if (pairsFilter == null || pairsFilter.isEmpty() || pairsFilter.contains(pair)) {
+                double last = JsonArrayStreamReader.toDouble(fields.get("close"));
+                double bid = JsonArrayStreamReader.toDouble(fields.get("bid"));
+                double ask = JsonArrayStreamReader.toDouble(fields.get("ask"));
+                double volume = JsonArrayStreamReader.toDouble(fields.get("vol"));
+
+                result.add(new TickerDTO(
+                        pair.getBase().getCurrencyCode(),
+                        pair.getCounter().getCurrencyCode(),
+                        last, bid, ask, volume, 0
+                ));
+            }
+        });
+
+        body.doOnNext(reader::feed).then().block();
+        reader.finish();
+        return result;
+    }
+
     @Override
     public List<CurrencyPair> getCurrencyPairs() {
+        return instruments.pairs();
+    }
+
+    private List<CurrencyPair> fetchCurrencyPairs() {
         try {
             String response = webClient.get()
                     .uri(apiProperties.getSymbolsPath())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.SYMBOLS)
                     .retrieve()
                     .bodyToMono(String.class)
                     .timeout(Duration.ofSeconds(30))
@@ -126,9 +161,35 @@ public class HuobiClient implements ExchangeClient {
         }
     }
 
+    @Override
+    public OrderBookDTO getOrderBook(CurrencyPair pair, int depth) throws IOException {
+        String response = webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(apiProperties.getDepthPath())
+                        .queryParam("symbol", symbolOf(pair))
+                        .queryParam("type", "step0")
+                        .queryParam("depth", depth <= 5 ? 5 : depth <= 10 ? 10 : 20)
+                        .build())
+                .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.ORDER_BOOK)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(10))
+                .block();
+        if (response == null || response.isEmpty()) {
+            throw new IOException("Пустой ответ стакана Huobi для " + pair);
+        }
+
+        JsonNode book = objectMapper.readTree(response).path("tick");
+        return OrderBookMapper.fromLevels(book.path("bids"), book.path("asks"), depth);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.HUOBI;
     }
 
+    private static String symbolOf(CurrencyPair pair) {
+        return (pair.getBase().getCurrencyCode() + pair.getCounter().getCurrencyCode()).toLowerCase();
+    }
+
 }
\ No newline at end of file
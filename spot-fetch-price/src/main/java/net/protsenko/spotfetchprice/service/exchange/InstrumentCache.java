@@ -0,0 +1,116 @@
+package net.protsenko.spotfetchprice.service.exchange;
+
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.props.InstrumentCacheProperties;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+@Slf4j
+public class InstrumentCache {
+
+    private final ExchangeType exchangeType;
+    private final Callable<List<CurrencyPair>> loader;
+    private final Function<CurrencyPair, String> symbolOf;
+    private final InstrumentCacheProperties properties;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Instruments instruments = Instruments.EMPTY;
+    private volatile long lastFailedAt;
+
+    public InstrumentCache(
+            ExchangeType exchangeType,
+            Callable<List<CurrencyPair>> loader,
+            Function<CurrencyPair, String> symbolOf,
+            InstrumentCacheProperties properties
+    ) {
+        this.exchangeType = exchangeType;
+        this.loader = loader;
+        this.symbolOf = symbolOf;
+        this.properties = properties;
+    }
+
+    public List<CurrencyPair> pairs() {
+        Instruments current = instruments;
+        long age = current.age();
+        if (current.pairs().isEmpty() || age >= properties.getTtlMs()) {
+            return load().pairs();
+        }
+        if (age >= properties.getRefreshMs()) {
+            refreshInBackground();
+        }
+        return current.pairs();
+    }
+
+    public Map<String, CurrencyPair> symbolIndex() {
+        return instruments.bySymbol();
+    }
+
+    public CurrencyPair pairOf(String symbol) {
+        return symbol == null ? null : instruments.bySymbol().get(symbol);
+    }
+
+    private synchronized Instruments load() {
+        Instruments current = instruments;
+        if (!current.pairs().isEmpty() && current.age() < properties.getTtlMs()) {
+            return current;
+        }
+        if (System.currentTimeMillis() - lastFailedAt < properties.getRetryMs()) {
+            return current;
+        }
+        return reload(current);
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual()
+                .name("instruments-" + exchangeType.name().toLowerCase())
+                .start(() -> {
+                    try {
+                        synchronized (this) {
+                            reload(instruments);
+                        }
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+    }
+
+    private Instruments reload(Instruments current) {
+        try {
+            List<CurrencyPair> pairs = loader.call();
+            if (pairs != null && !pairs.isEmpty()) {
+                Map<String, CurrencyPair> bySymbol = new HashMap<>(pairs.size() * 2);
+                for (CurrencyPair pair : pairs) {
+                    bySymbol.put(symbolOf.apply(pair), pair);
+                }
+                instruments = new Instruments(List.copyOf(pairs), Map.copyOf(bySymbol), System.currentTimeMillis());
+                log.debug("{}: загружено {} инструментов", exchangeType, pairs.size());
+                return instruments;
+            }
+            log.warn("{}: пустой список инструментов, используется кеш ({} пар)", exchangeType, current.pairs().size());
+        } catch (Exception e) {
+            log.warn("{}: ошибка обновления инструментов: {}", exchangeType, e.getMessage());
+        }
+        lastFailedAt = System.currentTimeMillis();
+        return current;
+    }
+
+    private record Instruments(List<CurrencyPair> pairs, Map<String, CurrencyPair> bySymbol, long loadedAt) {
+
+        private static final Instruments EMPTY = new Instruments(List.of(), Map.of(), 0);
+
+        long age() {
+            return System.currentTimeMillis() - loadedAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,145 @@
+package net.protsenko.spotfetchprice.service.exchange;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class JsonArrayStreamReader {
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final String arrayField;
+    private final Set<String> fields;
+    private final Consumer<Map<String, String>> sink;
+    private final Map<String, String> current = new HashMap<>();
+
+    private int depth;
+    private int arrayDepth = -1;
+    private boolean done;
+    private String rootField;
+    private String elementField;
+    private long bytesRead;
+
+    public JsonArrayStreamReader(
+            JsonFactory jsonFactory,
+            String arrayField,
+            Set<String> fields,
+            Consumer<Map<String, String>> sink
+    ) throws IOException {
+        this.parser = jsonFactory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.arrayField = arrayField;
+        this.fields = fields;
+        this.sink = sink;
+    }
+
+    public void feed(DataBuffer buffer) {
+        try {
+            byte[] chunk = new byte[buffer.readableByteCount()];
+            buffer.read(chunk);
+            feed(chunk, 0, chunk.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    public void feed(byte[] data, int offset, int length) throws IOException {
+        bytesRead += length;
+        feeder.feedInput(data, offset, offset + length);
+        drain();
+    }
+
+    public void finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        parser.close();
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public static double toDouble(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            handle(token);
+        }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT -> {
+                depth++;
+                if (inElement()) {
+                    current.clear();
+                    elementField = null;
+                }
+            }
+            case START_ARRAY -> {
+                depth++;
+                if (!done && arrayDepth < 0 && isTargetArray()) {
+                    arrayDepth = depth;
+                }
+            }
+            case END_OBJECT -> {
+                if (inElement()) {
+                    sink.accept(current);
+                }
+                depth--;
+            }
+            case END_ARRAY -> {
+                if (depth == arrayDepth) {
+                    arrayDepth = -1;
+                    done = true;
+                }
+                depth--;
+            }
+            case FIELD_NAME -> {
+                if (inElement()) {
+                    elementField = parser.currentName();
+                } else if (depth == 1) {
+                    rootField = parser.currentName();
+                }
+            }
+            case VALUE_NULL -> elementField = null;
+            default -> {
+                if (inElement() && elementField != null && fields.contains(elementField)) {
+                    current.put(elementField, parser.getText());
+                }
+                elementField = null;
+            }
+        }
+    }
+
+    private boolean inElement() {
+        return arrayDepth > 0 && depth == arrayDepth + 1;
+    }
+
+    private boolean isTargetArray() {
+        return arrayField == null ? depth == 1 : depth == 2 && arrayField.equals(rootField);
+    }
+
+}
@@ -3,6 +3,8 @@ package net.protsenko.spotfetchprice.service.exchange;
 import net.protsenko.spotfetchprice.dto.TickerDTO;
 import net.protsenko.spotfetchprice.mapper.TickerMapper;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.knowm.xchange.Exchange;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.kucoin.KucoinMarketDataServiceRaw;
@@ -12,18 +14,19 @@ import org.knowm.xchange.kucoin.dto.response.AllTickersTickerResponse;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 
 public class KucoinClient extends BaseXChangeClient {
 
-    public KucoinClient(Exchange exchange) {
-        super(exchange);
+    public KucoinClient(Exchange exchange, ExchangeRateLimiter rateLimiter) {
+        super(exchange, rateLimiter);
     }
 
     @Override
-    public List<TickerDTO> getTickers(List<CurrencyPair> instruments) throws IOException {
+    public List<TickerDTO> getTickers(Set<CurrencyPair> instruments) throws IOException {
         KucoinMarketDataServiceRaw rawService = (KucoinMarketDataServiceRaw) exchange.getMarketDataService();
-        AllTickersResponse allTickersResponse = rawService.getKucoinTickers();
+        AllTickersResponse allTickersResponse = limited(RateLimitEndpoint.TICKERS, rawService::getKucoinTickers);
 
         AllTickersTickerResponse[] tickersArray = allTickersResponse.getTicker();
 
@@ -3,28 +3,49 @@ package net.protsenko.spotfetchprice.service.exchange;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
 import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.mapper.OrderBookMapper;
 import net.protsenko.spotfetchprice.props.MEXCApiProperties;
+import net.protsenko.spotfetchprice.props.InstrumentCacheProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 public class MEXCClient implements ExchangeClient {
 
+    private static final Set<String> TICKER_FIELDS = Set.of("symbol", "bidPrice", "askPrice", "volume");
+
     private final MEXCApiProperties mexcApiProperties;
     private final ObjectMapper objectMapper;
+    private final InstrumentCache instruments;
     private final WebClient webClient;
 
-    public MEXCClient(MEXCApiProperties mexcApiProperties, ObjectMapper objectMapper) {
+    public MEXCClient(
+            MEXCApiProperties mexcApiProperties,
+            ObjectMapper objectMapper,
+            InstrumentCacheProperties instrumentCacheProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
         this.mexcApiProperties = mexcApiProperties;
         this.objectMapper = objectMapper;
+        this.instruments = new InstrumentCache(
+                ExchangeType.MEXC, this::fetchCurrencyPairs, MEXCClient::symbolOf, instrumentCacheProperties);
         this.webClient = WebClient.builder()
                 .baseUrl(mexcApiProperties.getBaseUrl())
                 .exchangeStrategies(ExchangeStrategies.builder()
@@ -32,58 +53,68 @@ public class MEXCClient implements ExchangeClient {
                                 .defaultCodecs()
                                 .maxInMemorySize(mexcApiProperties.getMaxInMemorySize()))
                         .build())
+                .filter(rateLimiter.filter(ExchangeType.MEXC))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.MEXC))
                 .build();
     }
 
     @Override
-    public List<TickerDTO> getTickers(List<CurrencyPair> pairsFilter) {
+    public List<TickerDTO> getTickers(Set<CurrencyPair> pairsFilter) {
         try {
-            String response = webClient.get()
+            instruments.pairs();
+            Flux<DataBuffer> body = webClient.get()
                     .uri(mexcApiProperties.getTickersPath())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.TICKERS)
                     .header("User-Agent", mexcApiProperties.getUserAgent())
                     .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .onErrorReturn("")
-                    .block();
-
-            if (response == null || response.isEmpty()) return Collections.emptyList();
+                    .bodyToFlux(DataBuffer.class)
+                    .timeout(Duration.ofSeconds(30));
 
-            JsonNode tickers = objectMapper.readTree(response);
-
-            List<TickerDTO> result = new ArrayList<>();
-            for (JsonNode tickerNode : tickers) {
-                String symbol = tickerNode.path("symbol").asText();
-                if (!isSupported(symbol)) continue;
-
-                try {
-                    CurrencyPair pair = parseMexcSymbol(symbol);
-                    if (pairsFilter == null || pairsFilter.isEmpty() || pairsFilter.contains(pair)) {
-                        double bid = getDoubleSafe(tickerNode, "bidPrice");
-                        double ask = getDoubleSafe(tickerNode, "askPrice");
-                        double volume = getDoubleSafe(tickerNode, "volume");
-                        result.add(new TickerDTO(
-                                pair.getBase().getCurrencyCode(),
-                                pair.getCounter().getCurrencyCode(),
-                                0, bid, ask, volume, 0
-                        ));
-                    }
-                } catch (IllegalArgumentException ex) {
-                    log.warn("MEXC: ошибка парсинга symbol '{}': {}", symbol, ex.getMessage());
-                }
-            }
-            return result;
+            return readTickers(body, pairsFilter);
         } catch (Exception e) {
             log.error("Ошибка загрузки тикеров MEXC: {}", e.getMessage(), e);
             return Collections.emptyList();
         }
     }
 
+    public List<TickerDTO> readTickers(Flux<DataBuffer> body, Set<CurrencyPair> pairsFilter) throws IOException {
+        List<TickerDTO> result = new ArrayList<>();
+        JsonArrayStreamReader reader = new JsonArrayStreamReader(objectMapper.getFactory(), null, TICKER_FIELDS, fields -> {
+            String symbol = fields.getOrDefault("symbol", "");
+            if (!isSupported(symbol)) return;
+
+            CurrencyPair pair = instruments.pairOf(symbol);
+            if (pair == null) {
+                if (!instruments.symbolIndex().isEmpty()) return;
+                pair = parseMexcSymbol(symbol);
+            }
+            if (pairsFilter == null || pairsFilter.isEmpty() || pairsFilter.contains(pair)) {
+                double bid = JsonArrayStreamReader.toDouble(fields.get("bidPrice"));
+                double ask = JsonArrayStreamReader.toDouble(fields.get("askPrice"));
+                double volume = JsonArrayStreamReader.toDouble(fields.get("volume"));
+                result.add(new TickerDTO(
+                        pair.getBase().getCurrencyCode(),
+                        pair.getCounter().getCurrencyCode(),
+                        0, bid, ask, volume, 0
+                ));
+            }
+        });
+
+        body.doOnNext(reader::feed).then().block();
+        reader.finish();
+        return result;
+    }
+
     @Override
     public List<CurrencyPair> getCurrencyPairs() {
+        return instruments.pairs();
+    }
+
+    private List<CurrencyPair> fetchCurrencyPairs() {
         try {
             String response = webClient.get()
                     .uri(mexcApiProperties.getExchangeInfoPath())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.SYMBOLS)
                     .header("User-Agent", mexcApiProperties.getUserAgent())
                     .retrieve()
                     .bodyToMono(String.class)
@@ -125,6 +156,28 @@ public class MEXCClient implements ExchangeClient {
         }
     }
 
+    @Override
+    public OrderBookDTO getOrderBook(CurrencyPair pair, int depth) throws IOException {
+        String response = webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(mexcApiProperties.getDepthPath())
+                        .queryParam("symbol", symbolOf(pair))
+                        .queryParam("limit", depth)
+                        .build())
+                .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.ORDER_BOOK)
+                .header("User-Agent", mexcApiProperties.getUserAgent())
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(10))
+                .block();
+        if (response == null || response.isEmpty()) {
+            throw new IOException("Пустой ответ стакана MEXC для " + pair);
+        }
+
+        JsonNode book = objectMapper.readTree(response);
+        return OrderBookMapper.fromLevels(book.path("bids"), book.path("asks"), depth);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.MEXC;
@@ -147,13 +200,8 @@ public class MEXCClient implements ExchangeClient {
         throw new IllegalArgumentException("Unsupported type MEXC: " + symbol);
     }
 
-    private double getDoubleSafe(JsonNode node, String field) {
-        try {
-            return node.path(field).asDouble(0.0);
-        } catch (Exception e) {
-            log.warn("MEXC: не удалось распарсить '{}' как double: {}", field, e.getMessage());
-            return 0.0;
-        }
+    private static String symbolOf(CurrencyPair pair) {
+        return pair.getBase().getCurrencyCode() + pair.getCounter().getCurrencyCode();
     }
 
 }
\ No newline at end of file
@@ -3,28 +3,49 @@ package net.protsenko.spotfetchprice.service.exchange;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
 import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.mapper.OrderBookMapper;
 import net.protsenko.spotfetchprice.props.OKXApiProperties;
+import net.protsenko.spotfetchprice.props.InstrumentCacheProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 public class OKXClient implements ExchangeClient {
 
+    private static final Set<String> TICKER_FIELDS = Set.of("instId", "last", "bidPx", "askPx", "vol24h");
+
     private final OKXApiProperties okxApiProperties;
     private final ObjectMapper objectMapper;
+    private final InstrumentCache instruments;
     private final WebClient webClient;
 
-    public OKXClient(OKXApiProperties okxApiProperties, ObjectMapper objectMapper) {
+    public OKXClient(
+            OKXApiProperties okxApiProperties,
+            ObjectMapper objectMapper,
+            InstrumentCacheProperties instrumentCacheProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
         this.okxApiProperties = okxApiProperties;
         this.objectMapper = objectMapper;
+        this.instruments = new InstrumentCache(
+                ExchangeType.OKX, this::fetchCurrencyPairs, OKXClient::symbolOf, instrumentCacheProperties);
         this.webClient = WebClient.builder()
                 .baseUrl(okxApiProperties.getBaseUrl())
                 .exchangeStrategies(ExchangeStrategies.builder()
@@ -32,59 +53,67 @@ public class OKXClient implements ExchangeClient {
                                 .defaultCodecs()
                                 .maxInMemorySize(okxApiProperties.getMaxInMemorySize()))
                         .build())
+                .filter(rateLimiter.filter(ExchangeType.OKX))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.OKX))
                 .build();
     }
 
     @Override
-    public List<TickerDTO> getTickers(List<CurrencyPair> pairsFilter) {
+    public List<TickerDTO> getTickers(Set<CurrencyPair> pairsFilter) {
         try {
-            String response = webClient.get()
+            instruments.pairs();
+            Flux<DataBuffer> body = webClient.get()
                     .uri(okxApiProperties.getTickersPath())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.TICKERS)
                     .header("User-Agent", okxApiProperties.getUserAgent())
                     .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .onErrorReturn("")
-                    .block();
-
-            if (response == null || response.isEmpty()) return Collections.emptyList();
+                    .bodyToFlux(DataBuffer.class)
+                    .timeout(Duration.ofSeconds(30));
 
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode tickers = root.get("data");
-
-            List<TickerDTO> result = new ArrayList<>();
-            if (tickers != null && tickers.isArray()) {
-                for (JsonNode ticker : tickers) {
-                    String instId = ticker.path("instId").asText();
-                    CurrencyPair pair = parseOkxPairSafe(instId);
-                    if (pair == null) continue;
-
-                    if (pairsFilter == null || pairsFilter.isEmpty() || pairsFilter.contains(pair)) {
-                        double last = getDoubleSafe(ticker, "last");
-                        double bid = getDoubleSafe(ticker, "bidPx");
-                        double ask = getDoubleSafe(ticker, "askPx");
-                        double volume = getDoubleSafe(ticker, "vol24h");
-
-                        result.add(new TickerDTO(
-                                pair.getBase().getCurrencyCode(),
-                                pair.getCounter().getCurrencyCode(),
-                                last, bid, ask, volume, 0
-                        ));
-                    }
-                }
-            }
-            return result;
+            return readTickers(body, pairsFilter);
         } catch (Exception e) {
             log.error("Ошибка загрузки тикеров OKX: {}", e.getMessage(), e);
             return Collections.emptyList();
         }
     }
 
+    public List<TickerDTO> readTickers(Flux<DataBuffer> body, Set<CurrencyPair> pairsFilter) throws IOException {
+        List<TickerDTO> result = new ArrayList<>();
+        JsonArrayStreamReader reader = new JsonArrayStreamReader(objectMapper.getFactory(), "data", TICKER_FIELDS, fields -> {
+            String instId = fields.get("instId");
+            CurrencyPair pair = instruments.pairOf(instId);
+            if (pair == null) pair = parseOkxPairSafe(instId);
+            if (pair == null) return;
+
+            if (pairsFilter == null || pairsFilter.isEmpty() || pairsFilter.contains(pair)) {
+                double last = JsonArrayStreamReader.toDouble(fields.get("last"));
+                double bid = JsonArrayStreamReader.toDouble(fields.get("bidPx"));
+                double ask = JsonArrayStreamReader.toDouble(fields.get("askPx"));
+                double volume = JsonArrayStreamReader.toDouble(fields.get("vol24h"));
+
+                result.add(new TickerDTO(
+                        pair.getBase().getCurrencyCode(),
+                        pair.getCounter().getCurrencyCode(),
+                        last, bid, ask, volume, 0
+                ));
+            }
+        });
+
+        body.doOnNext(reader::feed).then().block();
+        reader.finish();
+        return result;
+    }
+
     @Override
     public List<CurrencyPair> getCurrencyPairs() {
+        return instruments.pairs();
+    }
+
+    private List<CurrencyPair> fetchCurrencyPairs() {
         try {
             String response = webClient.get()
                     .uri(okxApiProperties.getInstrumentsPath())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.SYMBOLS)
                     .header("User-Agent", okxApiProperties.getUserAgent())
                     .retrieve()
                     .bodyToMono(String.class)
@@ -111,6 +140,28 @@ public class OKXClient implements ExchangeClient {
         }
     }
 
+    @Override
+    public OrderBookDTO getOrderBook(CurrencyPair pair, int depth) throws IOException {
+        String response = webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path(okxApiProperties.getBooksPath())
+                        .queryParam("instId", symbolOf(pair))
+                        .queryParam("sz", depth)
+                        .build())
+                .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.ORDER_BOOK)
+                .header("User-Agent", okxApiProperties.getUserAgent())
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(10))
+                .block();
+        if (response == null || response.isEmpty()) {
+            throw new IOException("Пустой ответ стакана OKX для " + pair);
+        }
+
+        JsonNode book = objectMapper.readTree(response).path("data").path(0);
+        return OrderBookMapper.fromLevels(book.path("bids"), book.path("asks"), depth);
+    }
+
     @Override
     public ExchangeType getExchangeType() {
         return ExchangeType.OKX;
@@ -126,12 +177,8 @@ public class OKXClient implements ExchangeClient {
         return null;
     }
 
-    private double getDoubleSafe(JsonNode node, String field) {
-        try {
-            return node.path(field).asDouble(0.0);
-        } catch (Exception e) {
-            log.warn("OKX: не удалось распарсить '{}' как double: {}", field, e.getMessage());
-            return 0.0;
-        }
+    private static String symbolOf(CurrencyPair pair) {
+        return pair.getBase().getCurrencyCode() + "-" + pair.getCounter().getCurrencyCode();
     }
+
 }
\ No newline at end of file
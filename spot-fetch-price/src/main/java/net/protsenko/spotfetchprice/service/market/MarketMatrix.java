@@ -0,0 +1,117 @@
+package net.protsenko.spotfetchprice.service.market;
+
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+public final class MarketMatrix {
+
+    public static final int WIDTH = ExchangeType.values().length;
+
+    public static final MarketMatrix EMPTY = new MarketMatrix(
+            new CurrencyPair[0], new double[0], new double[0], new double[0], new long[WIDTH]);
+
+    private final int rows;
+    private final CurrencyPair[] pairs;
+    private final double[] bid;
+    private final double[] ask;
+    private final double[] volume;
+    private final long[] snapshotTimestamp;
+
+    private MarketMatrix(
+            CurrencyPair[] pairs, double[] bid, double[] ask, double[] volume, long[] snapshotTimestamp
+    ) {
+        this.rows = pairs.length;
+        this.pairs = pairs;
+        this.bid = bid;
+        this.ask = ask;
+        this.volume = volume;
+        this.snapshotTimestamp = snapshotTimestamp;
+    }
+
+    public MarketMatrix withSnapshot(MarketSnapshot snapshot, PairIndex pairIndex) {
+        for (CurrencyPair pair : snapshot.tickers().keySet()) {
+            pairIndex.register(pair);
+        }
+        int newRows = Math.max(rows, pairIndex.size());
+        int cells = newRows * WIDTH;
+
+        CurrencyPair[] newPairs = Arrays.copyOf(pairs, newRows);
+        for (int row = rows; row < newRows; row++) {
+            newPairs[row] = pairIndex.pairAt(row);
+        }
+
+        double[] newBid = grow(bid, cells);
+        double[] newAsk = grow(ask, cells);
+        double[] newVolume = grow(volume, cells);
+        long[] newSnapshotTimestamp = snapshotTimestamp.clone();
+
+        int column = snapshot.exchange().ordinal();
+        for (int cell = column; cell < cells; cell += WIDTH) {
+            newBid[cell] = Double.NaN;
+            newAsk[cell] = Double.NaN;
+            newVolume[cell] = Double.NaN;
+        }
+        for (Map.Entry<CurrencyPair, TickerDTO> entry : snapshot.tickers().entrySet()) {
+            int cell = pairIndex.find(entry.getKey()) * WIDTH + column;
+            TickerDTO ticker = entry.getValue();
+            newBid[cell] = ticker.bid();
+            newAsk[cell] = ticker.ask();
+            newVolume[cell] = ticker.volume();
+        }
+        newSnapshotTimestamp[column] = snapshot.timestamp();
+
+        return new MarketMatrix(newPairs, newBid, newAsk, newVolume, newSnapshotTimestamp);
+    }
+
+    public long freshMask(Collection<ExchangeType> exchanges, long maxAgeMs) {
+        long now = System.currentTimeMillis();
+        long mask = 0;
+        for (ExchangeType exchangeType : exchanges) {
+            long ts = snapshotTimestamp[exchangeType.ordinal()];
+            if (ts > 0 && now - ts < maxAgeMs) {
+                mask |= 1L << exchangeType.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public CurrencyPair pairAt(int row) {
+        return pairs[row];
+    }
+
+    public int offset(int row) {
+        return row * WIDTH;
+    }
+
+    public double[] bid() {
+        return bid;
+    }
+
+    public double[] ask() {
+        return ask;
+    }
+
+    public double[] volume() {
+        return volume;
+    }
+
+    public long snapshotTimestamp(int column) {
+        return snapshotTimestamp[column];
+    }
+
+    private static double[] grow(double[] column, int cells) {
+        double[] grown = Arrays.copyOf(column, cells);
+        Arrays.fill(grown, column.length, cells, Double.NaN);
+        return grown;
+    }
+
+}
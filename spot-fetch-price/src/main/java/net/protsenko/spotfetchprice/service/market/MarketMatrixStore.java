@@ -0,0 +1,36 @@
+package net.protsenko.spotfetchprice.service.market;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+@Component
+@RequiredArgsConstructor
+public class MarketMatrixStore implements MarketSnapshotListener {
+
+    private final MarketSnapshotStore snapshotStore;
+    private final PairIndex pairIndex;
+    private final AtomicReference<MarketMatrix> matrix = new AtomicReference<>(MarketMatrix.EMPTY);
+
+    @PostConstruct
+    public void register() {
+        snapshotStore.addListener(this);
+    }
+
+    @Override
+    public synchronized void onSnapshot(MarketSnapshot previous, MarketSnapshot current) {
+        matrix.set(matrix.get().withSnapshot(current, pairIndex));
+    }
+
+    public MarketMatrix current() {
+        return matrix.get();
+    }
+
+    public int rowOf(CurrencyPair pair) {
+        return pairIndex.find(pair);
+    }
+
+}
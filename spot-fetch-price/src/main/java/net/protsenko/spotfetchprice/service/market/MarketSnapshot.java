@@ -0,0 +1,52 @@
+package net.protsenko.spotfetchprice.service.market;
+
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public record MarketSnapshot(
+        ExchangeType exchange,
+        Map<CurrencyPair, TickerDTO> tickers,
+        long timestamp
+) {
+
+    public MarketSnapshot {
+        tickers = Map.copyOf(tickers);
+    }
+
+    public static MarketSnapshot of(ExchangeType exchange, List<TickerDTO> tickers, long timestamp) {
+        Map<CurrencyPair, TickerDTO> byPair = new HashMap<>(tickers.size() * 2);
+        for (TickerDTO ticker : tickers) {
+            byPair.put(new CurrencyPair(ticker.baseCurrency(), ticker.counterCurrency()), ticker);
+        }
+        return new MarketSnapshot(exchange, byPair, timestamp);
+    }
+
+    public long ageMillis() {
+        return System.currentTimeMillis() - timestamp;
+    }
+
+    public boolean isEmpty() {
+        return tickers.isEmpty();
+    }
+
+    public Map<CurrencyPair, TickerDTO> select(Collection<CurrencyPair> pairs) {
+        if (pairs == null || pairs.isEmpty()) {
+            return tickers;
+        }
+        Map<CurrencyPair, TickerDTO> result = new HashMap<>(Math.min(pairs.size(), tickers.size()) * 2);
+        for (CurrencyPair pair : pairs) {
+            TickerDTO ticker = tickers.get(pair);
+            if (ticker != null) {
+                result.put(pair, ticker);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,13 @@
+package net.protsenko.spotfetchprice.service.market;
+
+import net.protsenko.spotfetchprice.service.ExchangeType;
+
+@FunctionalInterface
+public interface MarketSnapshotListener {
+
+    void onSnapshot(MarketSnapshot previous, MarketSnapshot current);
+
+    default void onRefreshFailed(ExchangeType exchangeType) {
+    }
+
+}
@@ -0,0 +1,61 @@
+package net.protsenko.spotfetchprice.service.market;
+
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+@Slf4j
+@Component
+public class MarketSnapshotStore {
+
+    private final AtomicReferenceArray<MarketSnapshot> snapshots =
+            new AtomicReferenceArray<>(ExchangeType.values().length);
+    private final List<MarketSnapshotListener> listeners = new CopyOnWriteArrayList<>();
+
+    public MarketSnapshot get(ExchangeType exchangeType) {
+        return snapshots.get(exchangeType.ordinal());
+    }
+
+    public void publish(MarketSnapshot snapshot) {
+        MarketSnapshot previous = snapshots.getAndSet(snapshot.exchange().ordinal(), snapshot);
+        for (MarketSnapshotListener listener : listeners) {
+            try {
+                listener.onSnapshot(previous, snapshot);
+            } catch (Exception e) {
+                log.warn("Snapshot listener failed for {}: {}", snapshot.exchange(), e.getMessage(), e);
+            }
+        }
+    }
+
+    public void reportRefreshFailure(ExchangeType exchangeType) {
+        for (MarketSnapshotListener listener : listeners) {
+            try {
+                listener.onRefreshFailed(exchangeType);
+            } catch (Exception e) {
+                log.warn("Snapshot listener failed on refresh failure for {}: {}", exchangeType, e.getMessage(), e);
+            }
+        }
+    }
+
+    public void addListener(MarketSnapshotListener listener) {
+        listeners.add(listener);
+    }
+
+    public Map<ExchangeType, MarketSnapshot> getAll(List<ExchangeType> exchangeTypes) {
+        Map<ExchangeType, MarketSnapshot> result = new EnumMap<>(ExchangeType.class);
+        for (ExchangeType exchangeType : exchangeTypes) {
+            MarketSnapshot snapshot = get(exchangeType);
+            if (snapshot != null) {
+                result.put(exchangeType, snapshot);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,49 @@
+package net.protsenko.spotfetchprice.service.market;
+
+import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class PairIndex {
+
+    public static final int UNKNOWN = -1;
+
+    private final Map<CurrencyPair, Integer> ids = new ConcurrentHashMap<>();
+    private final List<CurrencyPair> pairs = new ArrayList<>();
+
+    public int find(CurrencyPair pair) {
+        Integer id = ids.get(pair);
+        return id == null ? UNKNOWN : id;
+    }
+
+    public int register(CurrencyPair pair) {
+        Integer id = ids.get(pair);
+        if (id != null) {
+            return id;
+        }
+        synchronized (pairs) {
+            return ids.computeIfAbsent(pair, k -> {
+                pairs.add(k);
+                return pairs.size() - 1;
+            });
+        }
+    }
+
+    public CurrencyPair pairAt(int id) {
+        synchronized (pairs) {
+            return pairs.get(id);
+        }
+    }
+
+    public int size() {
+        synchronized (pairs) {
+            return pairs.size();
+        }
+    }
+
+}
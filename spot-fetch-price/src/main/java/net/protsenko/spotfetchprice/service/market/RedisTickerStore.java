@@ -0,0 +1,192 @@
+package net.protsenko.spotfetchprice.service.market;
+
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class RedisTickerStore {
+
+    private static final byte[] TIMESTAMP_FIELD = "@ts".getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, TickerDTO> redisTemplate;
+    private final ExchangeCacheProperties cacheProperties;
+
+    public RedisTickerStore(
+            @Qualifier("tickerRedisTemplate") RedisTemplate<String, TickerDTO> redisTemplate,
+            ExchangeCacheProperties cacheProperties
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.cacheProperties = cacheProperties;
+    }
+
+    public void write(ExchangeType exchangeType, Collection<TickerDTO> tickers, long timestamp, Duration ttl) {
+        List<Map<byte[], byte[]>> batches = toBatches(tickers, timestamp);
+        if (cacheProperties.isRedisPipelining()) {
+            byte[] staging = stagingKey(exchangeType);
+            try {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    writeBatches(connection, exchangeType, staging, batches, ttl);
+                    return null;
+                });
+                return;
+            } catch (Exception e) {
+                log.warn("Pipelined ticker write for {} failed, retrying without pipelining: {}",
+                        exchangeType, e.getMessage());
+                discard(staging);
+            }
+        }
+        byte[] staging = stagingKey(exchangeType);
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            writeBatches(connection, exchangeType, staging, batches, ttl);
+            return null;
+        });
+    }
+
+    public MarketSnapshot readAll(ExchangeType exchangeType) {
+        Map<byte[], byte[]> entries = redisTemplate.execute(
+                (RedisCallback<Map<byte[], byte[]>>) connection -> connection.hashCommands().hGetAll(key(exchangeType)));
+        if (entries == null || entries.isEmpty()) {
+            return null;
+        }
+
+        RedisSerializer<TickerDTO> serializer = valueSerializer();
+        long timestamp = 0;
+        List<TickerDTO> tickers = new ArrayList<>(entries.size());
+        for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+            if (Arrays.equals(entry.getKey(), TIMESTAMP_FIELD)) {
+                timestamp = parseTimestamp(entry.getValue());
+            } else {
+                TickerDTO ticker = serializer.deserialize(entry.getValue());
+                if (ticker != null) {
+                    tickers.add(ticker);
+                }
+            }
+        }
+        return toSnapshot(exchangeType, tickers, timestamp);
+    }
+
+    public MarketSnapshot read(ExchangeType exchangeType, Collection<CurrencyPair> pairs) {
+        byte[][] fields = new byte[pairs.size() + 1][];
+        fields[0] = TIMESTAMP_FIELD;
+        int i = 1;
+        for (CurrencyPair pair : pairs) {
+            fields[i++] = utf8(pair.toString());
+        }
+
+        List<byte[]> values = redisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.hashCommands().hMGet(key(exchangeType), fields));
+        if (values == null || values.isEmpty() || values.getFirst() == null) {
+            return null;
+        }
+
+        RedisSerializer<TickerDTO> serializer = valueSerializer();
+        List<TickerDTO> tickers = new ArrayList<>(pairs.size());
+        for (byte[] value : values.subList(1, values.size())) {
+            TickerDTO ticker = value != null ? serializer.deserialize(value) : null;
+            if (ticker != null) {
+                tickers.add(ticker);
+            }
+        }
+        return toSnapshot(exchangeType, tickers, parseTimestamp(values.getFirst()));
+    }
+
+    private List<Map<byte[], byte[]>> toBatches(Collection<TickerDTO> tickers, long timestamp) {
+        RedisSerializer<TickerDTO> serializer = valueSerializer();
+        int batchSize = Math.max(1, cacheProperties.getRedisBatchSize());
+        List<Map<byte[], byte[]>> batches = new ArrayList<>(tickers.size() / batchSize + 1);
+        Map<byte[], byte[]> batch = new HashMap<>();
+        batch.put(TIMESTAMP_FIELD, Long.toString(timestamp).getBytes(StandardCharsets.UTF_8));
+        for (TickerDTO ticker : tickers) {
+            if (batch.size() == batchSize) {
+                batches.add(batch);
+                batch = new HashMap<>(batchSize * 2);
+            }
+            batch.put(utf8(ticker.baseCurrency() + "/" + ticker.counterCurrency()), serializer.serialize(ticker));
+        }
+        batches.add(batch);
+        return batches;
+    }
+
+    private void writeBatches(
+            RedisConnection connection,
+            ExchangeType exchangeType,
+            byte[] staging,
+            List<Map<byte[], byte[]>> batches,
+            Duration ttl
+    ) {
+        for (int i = 0; i < batches.size(); i++) {
+            connection.hashCommands().hMSet(staging, batches.get(i));
+            if (i == 0) {
+                connection.keyCommands().pExpire(staging, ttl.toMillis());
+            }
+        }
+        connection.keyCommands().rename(staging, key(exchangeType));
+    }
+
+    private void discard(byte[] staging) {
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.keyCommands().del(staging));
+        } catch (Exception e) {
+            log.debug("Failed to remove abandoned staging key: {}", e.getMessage());
+        }
+    }
+
+    private MarketSnapshot toSnapshot(ExchangeType exchangeType, List<TickerDTO> tickers, long timestamp) {
+        if (timestamp <= 0) {
+            log.warn("Ticker hash for {} has no usable timestamp, treating it as a cache miss", exchangeType);
+            return null;
+        }
+        return MarketSnapshot.of(exchangeType, tickers, timestamp);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<TickerDTO> valueSerializer() {
+        return (RedisSerializer<TickerDTO>) redisTemplate.getHashValueSerializer();
+    }
+
+    private long parseTimestamp(byte[] value) {
+        try {
+            return Long.parseLong(new String(value, StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid snapshot timestamp in Redis: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private static byte[] key(ExchangeType exchangeType) {
+        return utf8(keyName(exchangeType));
+    }
+
+    private static byte[] stagingKey(ExchangeType exchangeType) {
+        return utf8(keyName(exchangeType) + ":staging:" + UUID.randomUUID());
+    }
+
+    private static String keyName(ExchangeType exchangeType) {
+        return "tickers:" + exchangeType.name();
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
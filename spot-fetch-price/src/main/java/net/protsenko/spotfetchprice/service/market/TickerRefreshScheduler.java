@@ -0,0 +1,93 @@
+package net.protsenko.spotfetchprice.service.market;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties;
+import net.protsenko.spotfetchprice.props.StreamProperties;
+import net.protsenko.spotfetchprice.service.ExchangeService;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TickerRefreshScheduler {
+
+    private final ExchangeService exchangeService;
+    private final ExchangeCacheProperties cacheProperties;
+    private final StreamProperties streamProperties;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!cacheProperties.isBackgroundRefresh() || running) {
+            return;
+        }
+        running = true;
+        for (ExchangeType exchangeType : exchangeService.getAvailableExchanges()) {
+            workers.add(Thread.ofVirtual()
+                    .name("ticker-refresh-" + exchangeType.name().toLowerCase())
+                    .start(() -> refreshLoop(exchangeType)));
+        }
+        log.info("Started background ticker refresh for {} exchanges", workers.size());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    private void refreshLoop(ExchangeType exchangeType) {
+        int failures = 0;
+        long delay = jitter();
+        while (running) {
+            if (!sleep(delay)) {
+                return;
+            }
+            try {
+                MarketSnapshot snapshot = exchangeService.refreshSnapshot(exchangeType);
+                log.debug("Refreshed {} tickers for {}", snapshot.tickers().size(), exchangeType);
+                failures = 0;
+                delay = exchangeService.isStreaming(exchangeType)
+                        ? streamProperties.getPublishMs()
+                        : cacheProperties.getRefreshMs() + jitter();
+            } catch (Exception e) {
+                failures++;
+                delay = backoff(failures);
+                log.warn("Ticker refresh for {} failed ({} in a row), retrying in {} ms: {}",
+                        exchangeType, failures, delay, e.getMessage());
+            }
+        }
+    }
+
+    private long backoff(int failures) {
+        long base = cacheProperties.getInitialBackoffMs() << Math.min(failures - 1, 16);
+        return Math.min(base, cacheProperties.getMaxBackoffMs()) + jitter();
+    }
+
+    private long jitter() {
+        long bound = cacheProperties.getRefreshJitterMs();
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound) : 0;
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
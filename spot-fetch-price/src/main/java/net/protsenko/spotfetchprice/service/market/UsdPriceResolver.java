@@ -0,0 +1,43 @@
+package net.protsenko.spotfetchprice.service.market;
+
+import lombok.RequiredArgsConstructor;
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class UsdPriceResolver {
+
+    private static final Set<String> USD_STABLECOINS = Set.of("USD", "USDT", "USDC", "FDUSD", "TUSD", "DAI", "USDD");
+    private static final List<String> USD_QUOTES = List.of("USDT", "USDC", "USD");
+
+    private final MarketSnapshotStore snapshotStore;
+    private final ExchangeCacheProperties cacheProperties;
+
+    public double usdPrice(String currency) {
+        if (USD_STABLECOINS.contains(currency)) {
+            return 1;
+        }
+        for (String quote : USD_QUOTES) {
+            CurrencyPair pair = new CurrencyPair(currency, quote);
+            for (ExchangeType exchangeType : ExchangeType.values()) {
+                MarketSnapshot snapshot = snapshotStore.get(exchangeType);
+                if (snapshot == null || snapshot.ageMillis() >= cacheProperties.getTtlMs()) {
+                    continue;
+                }
+                TickerDTO ticker = snapshot.tickers().get(pair);
+                if (ticker != null && ticker.bid() > 0 && ticker.ask() > 0) {
+                    return (ticker.bid() + ticker.ask()) / 2;
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+}
@@ -0,0 +1,132 @@
+package net.protsenko.spotfetchprice.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ExchangeMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public ExchangeMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T recordCall(ExchangeType exchangeType, String operation, Callable<T> call) throws Exception {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.call();
+        } catch (Exception e) {
+            outcome = "error";
+            Counter.builder("exchange.client.errors")
+                    .tag("exchange", exchangeType.name())
+                    .tag("operation", operation)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            Timer.builder("exchange.client.calls")
+                    .tag("exchange", exchangeType.name())
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordTickers(ExchangeType exchangeType, int count) {
+        DistributionSummary.builder("exchange.client.tickers")
+                .tag("exchange", exchangeType.name())
+                .register(meterRegistry)
+                .record(count);
+    }
+
+    public void recordCache(String cache, ExchangeType exchangeType, boolean hit) {
+        Counter.builder("cache.requests")
+                .tag("cache", cache)
+                .tag("exchange", exchangeType.name())
+                .tag("result", hit ? "hit" : "miss")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public ExecutorService monitor(ExecutorService executor, String name) {
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, name);
+    }
+
+    public ExecutorService virtualThreadExecutor(String name) {
+        AtomicInteger inFlight = new AtomicInteger();
+        Gauge.builder("executor.in.flight", inFlight, AtomicInteger::get)
+                .tag("name", name)
+                .register(meterRegistry);
+        ThreadFactory threads = Thread.ofVirtual().name(name + "-", 0).factory();
+        ThreadFactory counting = task -> {
+            inFlight.incrementAndGet();
+            return threads.newThread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        };
+        return monitor(Executors.newThreadPerTaskExecutor(counting), name);
+    }
+
+    public ExchangeFilterFunction httpFilter(ExchangeType exchangeType) {
+        return (request, next) -> Mono.defer(() -> {
+            long start = System.nanoTime();
+            String endpoint = request.attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE)
+                    .map(value -> value.toString().toLowerCase())
+                    .orElse("other");
+            return next.exchange(request)
+                    .map(response -> {
+                        AtomicLong bytes = new AtomicLong();
+                        String status = String.valueOf(response.statusCode().value());
+                        return response.mutate()
+                                .body(body -> body
+                                        .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                                        .doFinally(signal -> recordHttp(exchangeType, endpoint, status, start, bytes.get())))
+                                .build();
+                    })
+                    .doOnError(e -> recordHttp(exchangeType, endpoint, "IO_ERROR", start, 0));
+        });
+    }
+
+    private void recordHttp(ExchangeType exchangeType, String endpoint, String status, long start, long bytes) {
+        Timer.builder("exchange.http.requests")
+                .tag("exchange", exchangeType.name())
+                .tag("endpoint", endpoint)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("exchange.http.payload")
+                .baseUnit("bytes")
+                .tag("exchange", exchangeType.name())
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+}
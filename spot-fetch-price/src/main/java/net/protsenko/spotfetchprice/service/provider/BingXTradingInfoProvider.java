@@ -4,10 +4,15 @@ import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
 import net.protsenko.spotfetchprice.dto.TradingNetworkInfoDTO;
 import net.protsenko.spotfetchprice.props.BingXApiProperties;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
@@ -16,9 +21,10 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeMap;
-import java.util.concurrent.TimeUnit;
 
 import static net.protsenko.spotfetchprice.util.BingXApiSignUtils.generateHmac256;
 import static net.protsenko.spotfetchprice.util.BingXApiSignUtils.getMessageToDigest;
@@ -29,12 +35,18 @@ import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 public class BingXTradingInfoProvider implements TradingInfoProvider {
 
     private final BingXApiProperties bingxApiProperties;
-    private final RedisTemplate<String, String> redisTemplate;
     private final WebClient webClient;
-
-    public BingXTradingInfoProvider(BingXApiProperties bingxApiProperties, RedisTemplate<String, String> redisTemplate) {
+    private final TradingInfoIndex index;
+
+    public BingXTradingInfoProvider(
+            BingXApiProperties bingxApiProperties,
+            @Qualifier("tradingInfoRedisTemplate") RedisTemplate<String, TradingInfoDTO> redisTemplate,
+            TradingInfoProperties tradingInfoProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
         this.bingxApiProperties = bingxApiProperties;
-        this.redisTemplate = redisTemplate;
+        this.index = new TradingInfoIndex(ExchangeType.BINGX, this::fetchAllCoins, redisTemplate, tradingInfoProperties, exchangeMetrics);
         this.webClient = WebClient.builder()
                 .baseUrl(bingxApiProperties.getBaseUrl())
                 .exchangeStrategies(ExchangeStrategies.builder()
@@ -44,39 +56,43 @@ public class BingXTradingInfoProvider implements TradingInfoProvider {
                         )
                         .build())
                 .clientConnector(bingxApiProperties.createConnector())
+                .filter(rateLimiter.filter(ExchangeType.BINGX))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.BINGX))
                 .build();
     }
 
     @Override
     public TradingInfoDTO getTradingInfo(ExchangeType exchange, CurrencyPair pair) {
-        String coin = pair.getBase().getCurrencyCode().toUpperCase();
-
-        String cachedJson = getCachedJson();
-        if (cachedJson == null) {
-            cachedJson = fetchAndCacheJson(exchange);
-            if (cachedJson == null) return stub();
-        }
-
-        return parseCoinInfoFromJson(cachedJson, coin);
+        TradingInfoDTO info = index.get(pair.getBase().getCurrencyCode());
+        return info != null ? info : stub();
     }
 
-    private String getCachedJson() {
-        return redisTemplate.opsForValue().get(bingxApiProperties.getRedis_key());
+    @Override
+    public void refreshAll() {
+        index.refreshInBackground();
     }
 
-    private String fetchAndCacheJson(ExchangeType exchange) {
-        try {
-            String response = fetchAllCoinsFromApi(exchange);
-            if (response != null && !response.isEmpty()) {
-                redisTemplate.opsForValue().set(
-                        bingxApiProperties.getRedis_key(), response, 24, TimeUnit.HOURS
-                );
-                return response;
+    private Map<String, TradingInfoDTO> fetchAllCoins() {
+        String json = fetchAllCoinsFromApi(ExchangeType.BINGX);
+        if (json == null || json.isEmpty()) return Map.of();
+
+        JSONObject root = new JSONObject(json);
+        if (!"0".equals(root.optString("code"))) {
+            log.warn("BingX error: {}", root.optString("msg"));
+            return Map.of();
+        }
+        JSONArray dataArr = root.optJSONArray("data");
+        if (dataArr == null || dataArr.isEmpty()) return Map.of();
+
+        Map<String, TradingInfoDTO> result = new HashMap<>(dataArr.length() * 2);
+        for (int i = 0; i < dataArr.length(); i++) {
+            JSONObject coinObj = dataArr.getJSONObject(i);
+            String coin = coinObj.optString("coin", "").toUpperCase();
+            if (!coin.isEmpty()) {
+                result.put(coin, buildTradingInfoFromJson(coinObj));
             }
-        } catch (Exception ex) {
-            log.error("Ошибка получения данных BingX: ", ex);
         }
-        return null;
+        return result;
     }
 
     private String fetchAllCoinsFromApi(ExchangeType exchange) {
@@ -94,6 +110,7 @@ public class BingXTradingInfoProvider implements TradingInfoProvider {
                             .path(bingxApiProperties.getSpotConfigPath())
                             .query(parametersString)
                             .build())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.COIN_CONFIG)
                     .header("X-BX-APIKEY", bingxApiProperties.getKey())
                     .header("User-Agent", bingxApiProperties.getUserAgent())
                     .retrieve()
@@ -110,36 +127,6 @@ public class BingXTradingInfoProvider implements TradingInfoProvider {
         }
     }
 
-    private TradingInfoDTO parseCoinInfoFromJson(String json, String coin) {
-        try {
-            JSONObject root = new JSONObject(json);
-            if (!"0".equals(root.optString("code"))) {
-                log.warn("BingX error: {}", root.optString("msg"));
-                return stub();
-            }
-            JSONArray dataArr = root.optJSONArray("data");
-            if (dataArr == null || dataArr.isEmpty()) return stub();
-
-            JSONObject coinObj = findCoinObject(dataArr, coin);
-            if (coinObj == null) return stub();
-
-            return buildTradingInfoFromJson(coinObj);
-        } catch (Exception e) {
-            log.error("Ошибка парсинга JSON BingX: ", e);
-            return stub();
-        }
-    }
-
-    private JSONObject findCoinObject(JSONArray dataArr, String coin) {
-        for (int i = 0; i < dataArr.length(); i++) {
-            JSONObject obj = dataArr.getJSONObject(i);
-            if (coin.equalsIgnoreCase(obj.optString("coin"))) {
-                return obj;
-            }
-        }
-        return null;
-    }
-
     private TradingInfoDTO buildTradingInfoFromJson(JSONObject coinObj) {
         JSONArray chains = coinObj.optJSONArray("networkList");
         if (chains == null || chains.isEmpty()) return stub();
@@ -5,10 +5,15 @@ import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
 import net.protsenko.spotfetchprice.dto.TradingNetworkInfoDTO;
 import net.protsenko.spotfetchprice.props.BitgetApiProperties;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
@@ -17,8 +22,9 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 
@@ -27,12 +33,18 @@ import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 public class BitgetTradingInfoProvider implements TradingInfoProvider {
 
     private final BitgetApiProperties bitgetApiProperties;
-    private final RedisTemplate<String, String> redisTemplate;
     private final WebClient webClient;
-
-    public BitgetTradingInfoProvider(BitgetApiProperties bitgetApiProperties, RedisTemplate<String, String> redisTemplate) {
+    private final TradingInfoIndex index;
+
+    public BitgetTradingInfoProvider(
+            BitgetApiProperties bitgetApiProperties,
+            @Qualifier("tradingInfoRedisTemplate") RedisTemplate<String, TradingInfoDTO> redisTemplate,
+            TradingInfoProperties tradingInfoProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
         this.bitgetApiProperties = bitgetApiProperties;
-        this.redisTemplate = redisTemplate;
+        this.index = new TradingInfoIndex(ExchangeType.BITGET, this::fetchAllCoins, redisTemplate, tradingInfoProperties, exchangeMetrics);
         this.webClient = WebClient.builder()
                 .baseUrl(bitgetApiProperties.getBaseUrl())
                 .exchangeStrategies(ExchangeStrategies.builder()
@@ -42,47 +54,50 @@ public class BitgetTradingInfoProvider implements TradingInfoProvider {
                         )
                         .build())
                 .clientConnector(bitgetApiProperties.createConnector())
+                .filter(rateLimiter.filter(ExchangeType.BITGET))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.BITGET))
                 .build();
     }
 
     @Override
     public TradingInfoDTO getTradingInfo(ExchangeType exchange, CurrencyPair pair) {
-        String coin = pair.getBase().getCurrencyCode().toUpperCase();
-
-        String json = getAllCoinsJsonFromCache();
-        if (json == null) {
-            json = fetchAndCacheAllCoinsJson(exchange);
-            if (json == null) return stub();
-        }
-
-        return buildTradingInfoForCoin(json, coin);
+        TradingInfoDTO info = index.get(pair.getBase().getCurrencyCode());
+        return info != null ? info : stub();
     }
 
-    private String getAllCoinsJsonFromCache() {
-        return redisTemplate.opsForValue().get(bitgetApiProperties.getRedisKeyAll());
+    @Override
+    public void refreshAll() {
+        index.refreshInBackground();
     }
 
-    private String fetchAndCacheAllCoinsJson(ExchangeType exchange) {
-        try {
-            String response = fetchAllCoinsFromApi(exchange);
-            if (response != null && !response.isEmpty()) {
-                redisTemplate.opsForValue().set(
-                        bitgetApiProperties.getRedisKeyAll(),
-                        response,
-                        24, TimeUnit.HOURS
-                );
-                return response;
+    private Map<String, TradingInfoDTO> fetchAllCoins() {
+        String json = fetchAllCoinsFromApi(ExchangeType.BITGET);
+        if (json == null || json.isEmpty()) return Map.of();
+
+        JSONObject root = new JSONObject(json);
+        if (!"00000".equals(root.optString("code"))) {
+            log.warn("Bitget error: {}", root.optString("msg"));
+            return Map.of();
+        }
+        JSONArray dataArr = root.optJSONArray("data");
+        if (dataArr == null || dataArr.isEmpty()) return Map.of();
+
+        Map<String, TradingInfoDTO> result = new HashMap<>(dataArr.length() * 2);
+        for (int i = 0; i < dataArr.length(); i++) {
+            JSONObject coinObj = dataArr.getJSONObject(i);
+            String coin = coinObj.optString("coinName", "").toUpperCase();
+            if (!coin.isEmpty()) {
+                result.put(coin, buildTradingInfoFromJson(coinObj));
             }
-        } catch (Exception ex) {
-            log.error("Ошибка получения данных Bitget: ", ex);
         }
-        return null;
+        return result;
     }
 
     private String fetchAllCoinsFromApi(ExchangeType exchange) {
         try {
             return webClient.get()
                     .uri(bitgetApiProperties.getSpotConfigUrl())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.COIN_CONFIG)
                     .retrieve()
                     .bodyToMono(String.class)
                     .timeout(Duration.ofSeconds(bitgetApiProperties.getResponseTimeoutSeconds()))
@@ -97,37 +112,6 @@ public class BitgetTradingInfoProvider implements TradingInfoProvider {
         }
     }
 
-    private TradingInfoDTO buildTradingInfoForCoin(String json, String coin) {
-        try {
-            JSONObject root = new JSONObject(json);
-            if (!"00000".equals(root.optString("code"))) {
-                log.warn("Bitget error: {}", root.optString("msg"));
-                return stub();
-            }
-
-            JSONArray dataArr = root.optJSONArray("data");
-            if (dataArr == null || dataArr.isEmpty()) return stub();
-
-            JSONObject coinObj = findCoinObject(dataArr, coin);
-            if (coinObj == null) return stub();
-
-            return buildTradingInfoFromJson(coinObj);
-        } catch (Exception ex) {
-            log.error("Ошибка парсинга Bitget: ", ex);
-            return stub();
-        }
-    }
-
-    private JSONObject findCoinObject(JSONArray dataArr, String coin) {
-        for (int i = 0; i < dataArr.length(); i++) {
-            JSONObject obj = dataArr.getJSONObject(i);
-            if (coin.equalsIgnoreCase(obj.optString("coinName"))) {
-                return obj;
-            }
-        }
-        return null;
-    }
-
     private TradingInfoDTO buildTradingInfoFromJson(JSONObject coinObj) {
         JSONArray chains = coinObj.optJSONArray("chains");
         if (chains == null || chains.isEmpty()) return stub();
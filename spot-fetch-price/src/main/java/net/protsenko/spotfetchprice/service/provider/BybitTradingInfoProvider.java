@@ -1,89 +1,114 @@
 package net.protsenko.spotfetchprice.service.provider;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
 import net.protsenko.spotfetchprice.dto.TradingNetworkInfoDTO;
 import net.protsenko.spotfetchprice.props.BybitApiProperties;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 import static net.protsenko.spotfetchprice.util.BybitApiSignUtils.sign;
 import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class BybitTradingInfoProvider implements TradingInfoProvider {
 
     private final BybitApiProperties bybitApiProperties;
-    @Qualifier("tradingInfoRedisTemplate")
-    private final RedisTemplate<String, TradingInfoDTO> redisTemplate;
-
-    private final WebClient webClient = WebClient.builder().build();
+    private final WebClient webClient;
+    private final TradingInfoIndex index;
+
+    public BybitTradingInfoProvider(
+            BybitApiProperties bybitApiProperties,
+            @Qualifier("tradingInfoRedisTemplate") RedisTemplate<String, TradingInfoDTO> redisTemplate,
+            TradingInfoProperties tradingInfoProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
+        this.bybitApiProperties = bybitApiProperties;
+        this.index = new TradingInfoIndex(ExchangeType.BYBIT, this::fetchAllCoins, redisTemplate, tradingInfoProperties, exchangeMetrics);
+        this.webClient = WebClient.builder()
+                .exchangeStrategies(ExchangeStrategies.builder()
+                        .codecs(configurer -> configurer
+                                .defaultCodecs()
+                                .maxInMemorySize(20 * 1024 * 1024))
+                        .build())
+                .filter(rateLimiter.filter(ExchangeType.BYBIT))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.BYBIT))
+                .build();
+    }
 
     @Override
     public TradingInfoDTO getTradingInfo(ExchangeType exchange, CurrencyPair pair) {
-        String coin = pair.getBase().getCurrencyCode().toUpperCase();
-        String redisKey = buildRedisKey(coin);
-
-        TradingInfoDTO cached = getFromCache(redisKey);
-        if (cached != null) return cached;
-
-        try {
-            String response = fetchCoinInfoFromApi(exchange, coin);
-            TradingInfoDTO dto = parseTradingInfo(response);
-            if (dto != null) {
-                putToCache(redisKey, dto);
-                return dto;
-            }
-        } catch (Exception ex) {
-            log.error("Ошибка BybitTradingInfoProvider: ", ex);
-        }
-        return stub();
+        TradingInfoDTO info = index.get(pair.getBase().getCurrencyCode());
+        return info != null ? info : stub();
     }
 
-    private String buildRedisKey(String coin) {
-        return "tradingInfo:bybit:" + coin;
+    @Override
+    public void refreshAll() {
+        index.refreshInBackground();
     }
 
-    private TradingInfoDTO getFromCache(String key) {
-        return redisTemplate.opsForValue().get(key);
-    }
+    private Map<String, TradingInfoDTO> fetchAllCoins() {
+        String response = fetchAllCoinsFromApi(ExchangeType.BYBIT);
+        if (response == null || response.isEmpty()) return Map.of();
+
+        JSONObject obj = new JSONObject(response);
+        if (obj.optInt("retCode") != 0) {
+            log.warn("Bybit error: {}", obj.optString("retMsg"));
+            return Map.of();
+        }
 
-    private void putToCache(String key, TradingInfoDTO dto) {
-        redisTemplate.opsForValue().set(key, dto, 24, TimeUnit.HOURS);
+        JSONObject result = obj.optJSONObject("result");
+        JSONArray rows = result != null ? result.optJSONArray("rows") : null;
+        if (rows == null || rows.isEmpty()) return Map.of();
+
+        Map<String, TradingInfoDTO> byCoin = new HashMap<>(rows.length() * 2);
+        for (int i = 0; i < rows.length(); i++) {
+            JSONObject coinObj = rows.getJSONObject(i);
+            String coin = coinObj.optString("coin", "").toUpperCase();
+            TradingInfoDTO dto = parseTradingInfo(coinObj);
+            if (!coin.isEmpty() && dto != null) {
+                byCoin.put(coin, dto);
+            }
+        }
+        return byCoin;
     }
 
-    private String fetchCoinInfoFromApi(ExchangeType exchange, String coin) {
+    private String fetchAllCoinsFromApi(ExchangeType exchange) {
         long timestamp = System.currentTimeMillis();
-        String query = "coin=" + coin;
-        String preSign = timestamp + bybitApiProperties.getKey() + BybitApiProperties.RECV_WINDOW + query;
+        String preSign = timestamp + bybitApiProperties.getKey() + BybitApiProperties.RECV_WINDOW;
         String signStr = sign(preSign, bybitApiProperties.getSecret());
-        String url = BybitApiProperties.API_URL + "?" + query;
 
         try {
             return webClient.get()
-                    .uri(url)
+                    .uri(BybitApiProperties.API_URL)
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.COIN_CONFIG)
                     .header("X-BAPI-API-KEY", bybitApiProperties.getKey())
                     .header("X-BAPI-TIMESTAMP", String.valueOf(timestamp))
                     .header("X-BAPI-RECV-WINDOW", BybitApiProperties.RECV_WINDOW)
                     .header("X-BAPI-SIGN", signStr)
                     .retrieve()
                     .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(10))
+                    .timeout(Duration.ofSeconds(60))
                     .onErrorResume(e -> {
                         log.error("Ошибка при вызове {} API: {}", exchange.name(), e.getMessage(), e);
                         return Mono.just("");
@@ -95,19 +120,7 @@ public class BybitTradingInfoProvider implements TradingInfoProvider {
         }
     }
 
-    private TradingInfoDTO parseTradingInfo(String response) {
-        if (response == null || response.isEmpty()) return null;
-
-        JSONObject obj = new JSONObject(response);
-        if (obj.optInt("retCode") != 0) return null;
-
-        JSONObject result = obj.optJSONObject("result");
-        if (result == null) return null;
-
-        JSONArray rows = result.optJSONArray("rows");
-        if (rows == null || rows.isEmpty()) return null;
-
-        JSONObject coinObj = rows.getJSONObject(0);
+    private TradingInfoDTO parseTradingInfo(JSONObject coinObj) {
         JSONArray chains = coinObj.optJSONArray("chains");
         if (chains == null || chains.isEmpty()) return null;
 
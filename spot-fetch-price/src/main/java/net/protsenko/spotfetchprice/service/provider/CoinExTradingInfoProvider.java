@@ -4,10 +4,15 @@ import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
 import net.protsenko.spotfetchprice.dto.TradingNetworkInfoDTO;
 import net.protsenko.spotfetchprice.props.CoinEXApiProperties;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
@@ -16,8 +21,9 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 
@@ -26,12 +32,18 @@ import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 public class CoinExTradingInfoProvider implements TradingInfoProvider {
 
     private final CoinEXApiProperties apiProperties;
-    private final RedisTemplate<String, String> redisTemplate;
     private final WebClient webClient;
-
-    public CoinExTradingInfoProvider(CoinEXApiProperties apiProperties, RedisTemplate<String, String> redisTemplate) {
+    private final TradingInfoIndex index;
+
+    public CoinExTradingInfoProvider(
+            CoinEXApiProperties apiProperties,
+            @Qualifier("tradingInfoRedisTemplate") RedisTemplate<String, TradingInfoDTO> redisTemplate,
+            TradingInfoProperties tradingInfoProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
         this.apiProperties = apiProperties;
-        this.redisTemplate = redisTemplate;
+        this.index = new TradingInfoIndex(ExchangeType.COINEX, this::fetchAllCoins, redisTemplate, tradingInfoProperties, exchangeMetrics);
         this.webClient = WebClient.builder()
                 .baseUrl(apiProperties.getBaseUrl())
                 .exchangeStrategies(ExchangeStrategies.builder()
@@ -41,43 +53,51 @@ public class CoinExTradingInfoProvider implements TradingInfoProvider {
                         )
                         .build())
                 .clientConnector(apiProperties.createConnector())
+                .filter(rateLimiter.filter(ExchangeType.COINEX))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.COINEX))
                 .build();
     }
 
     @Override
     public TradingInfoDTO getTradingInfo(ExchangeType exchange, CurrencyPair pair) {
-        String coin = pair.getBase().getCurrencyCode().toUpperCase();
-
-        String allCoinsJson = getAllCoinsFromCache();
-        if (allCoinsJson == null) {
-            allCoinsJson = fetchAndCacheAllCoinsJson(exchange);
-            if (allCoinsJson == null) return stub();
-        }
-
-        return parseTradingInfoForCoin(allCoinsJson, coin);
+        TradingInfoDTO info = index.get(pair.getBase().getCurrencyCode());
+        return info != null ? info : stub();
     }
 
-    private String getAllCoinsFromCache() {
-        return redisTemplate.opsForValue().get(apiProperties.getRedisKeyAll());
+    @Override
+    public void refreshAll() {
+        index.refreshInBackground();
     }
 
-    private String fetchAndCacheAllCoinsJson(ExchangeType exchange) {
-        try {
-            String json = fetchAllCoinsFromApi(exchange);
-            if (json != null && !json.isEmpty()) {
-                redisTemplate.opsForValue().set(apiProperties.getRedisKeyAll(), json, 24, TimeUnit.HOURS);
-                return json;
+    private Map<String, TradingInfoDTO> fetchAllCoins() {
+        String json = fetchAllCoinsFromApi(ExchangeType.COINEX);
+        if (json == null || json.isEmpty()) return Map.of();
+
+        JSONObject root = new JSONObject(json);
+        if (root.optInt("code") != 0) {
+            log.warn("CoinEx error: {}", root.optString("message"));
+            return Map.of();
+        }
+        JSONArray dataArr = root.optJSONArray("data");
+        if (dataArr == null || dataArr.isEmpty()) return Map.of();
+
+        Map<String, TradingInfoDTO> result = new HashMap<>(dataArr.length() * 2);
+        for (int i = 0; i < dataArr.length(); i++) {
+            JSONObject coinObj = dataArr.getJSONObject(i);
+            JSONObject asset = coinObj.optJSONObject("asset");
+            String coin = asset != null ? asset.optString("ccy", "").toUpperCase() : "";
+            if (!coin.isEmpty()) {
+                result.put(coin, buildTradingInfoFromJson(coinObj));
             }
-        } catch (Exception ex) {
-            log.error("Ошибка получения данных CoinEx: ", ex);
         }
-        return null;
+        return result;
     }
 
     private String fetchAllCoinsFromApi(ExchangeType exchange) {
         try {
             return webClient.get()
                     .uri(apiProperties.getSpotConfigPath())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.COIN_CONFIG)
                     .retrieve()
                     .bodyToMono(String.class)
                     .timeout(Duration.ofSeconds(apiProperties.getResponseTimeoutSeconds()))
@@ -92,37 +112,6 @@ public class CoinExTradingInfoProvider implements TradingInfoProvider {
         }
     }
 
-    private TradingInfoDTO parseTradingInfoForCoin(String json, String coin) {
-        try {
-            JSONObject root = new JSONObject(json);
-            if (root.optInt("code") != 0) {
-                log.warn("CoinEx error: {}", root.optString("message"));
-                return stub();
-            }
-            JSONArray dataArr = root.optJSONArray("data");
-            if (dataArr == null || dataArr.isEmpty()) return stub();
-
-            JSONObject coinObj = findCoinObject(dataArr, coin);
-            if (coinObj == null) return stub();
-
-            return buildTradingInfoFromJson(coinObj);
-        } catch (Exception ex) {
-            log.error("Ошибка парсинга CoinEx: ", ex);
-            return stub();
-        }
-    }
-
-    private JSONObject findCoinObject(JSONArray dataArr, String coin) {
-        for (int i = 0; i < dataArr.length(); i++) {
-            JSONObject obj = dataArr.getJSONObject(i);
-            JSONObject asset = obj.optJSONObject("asset");
-            if (asset != null && coin.equalsIgnoreCase(asset.optString("ccy"))) {
-                return obj;
-            }
-        }
-        return null;
-    }
-
     private TradingInfoDTO buildTradingInfoFromJson(JSONObject coinObj) {
         JSONArray chains = coinObj.optJSONArray("chains");
         if (chains == null || chains.isEmpty()) return stub();
@@ -4,10 +4,15 @@ import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
 import net.protsenko.spotfetchprice.dto.TradingNetworkInfoDTO;
 import net.protsenko.spotfetchprice.props.HuobiApiProperties;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
@@ -16,8 +21,9 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 
@@ -26,12 +32,18 @@ import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 public class HuobiTradingInfoProvider implements TradingInfoProvider {
 
     private final HuobiApiProperties huobiApiProperties;
-    private final RedisTemplate<String, String> redisTemplate;
     private final WebClient webClient;
-
-    public HuobiTradingInfoProvider(HuobiApiProperties huobiApiProperties, RedisTemplate<String, String> redisTemplate) {
+    private final TradingInfoIndex index;
+
+    public HuobiTradingInfoProvider(
+            HuobiApiProperties huobiApiProperties,
+            @Qualifier("tradingInfoRedisTemplate") RedisTemplate<String, TradingInfoDTO> redisTemplate,
+            TradingInfoProperties tradingInfoProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
         this.huobiApiProperties = huobiApiProperties;
-        this.redisTemplate = redisTemplate;
+        this.index = new TradingInfoIndex(ExchangeType.HUOBI, this::fetchAllCoins, redisTemplate, tradingInfoProperties, exchangeMetrics);
         this.webClient = WebClient.builder()
                 .baseUrl(huobiApiProperties.getBaseUrl())
                 .exchangeStrategies(ExchangeStrategies.builder()
@@ -40,45 +52,50 @@ public class HuobiTradingInfoProvider implements TradingInfoProvider {
                                 .maxInMemorySize(huobiApiProperties.getMaxInMemorySize()))
                         .build())
                 .clientConnector(huobiApiProperties.createConnector())
+                .filter(rateLimiter.filter(ExchangeType.HUOBI))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.HUOBI))
                 .build();
     }
 
     @Override
     public TradingInfoDTO getTradingInfo(ExchangeType exchange, CurrencyPair pair) {
-        String coin = pair.getBase().getCurrencyCode().toLowerCase();
-
-        String json = getCachedJson();
-        if (json == null) {
-            json = fetchAndCacheJson(exchange);
-            if (json == null) return stub();
-        }
-
-        return parseCoinInfoFromJson(json, coin);
+        TradingInfoDTO info = index.get(pair.getBase().getCurrencyCode());
+        return info != null ? info : stub();
     }
 
-    private String getCachedJson() {
-        return redisTemplate.opsForValue().get(huobiApiProperties.getRedisKey());
+    @Override
+    public void refreshAll() {
+        index.refreshInBackground();
     }
 
-    private String fetchAndCacheJson(ExchangeType exchange) {
-        try {
-            String response = fetchAllCoinsFromApi(exchange);
-            if (response != null && !response.isEmpty()) {
-                redisTemplate.opsForValue().set(
-                        huobiApiProperties.getRedisKey(), response, 24, TimeUnit.HOURS
-                );
-                return response;
+    private Map<String, TradingInfoDTO> fetchAllCoins() {
+        String json = fetchAllCoinsFromApi(ExchangeType.HUOBI);
+        if (json == null || json.isEmpty()) return Map.of();
+
+        JSONObject root = new JSONObject(json);
+        if (!"200".equals(root.optString("code")) && !"0".equals(root.optString("code"))) {
+            log.warn("Huobi error: {}", root.optString("message"));
+            return Map.of();
+        }
+        JSONArray dataArr = root.optJSONArray("data");
+        if (dataArr == null || dataArr.isEmpty()) return Map.of();
+
+        Map<String, TradingInfoDTO> result = new HashMap<>(dataArr.length() * 2);
+        for (int i = 0; i < dataArr.length(); i++) {
+            JSONObject coinObj = dataArr.getJSONObject(i);
+            String coin = coinObj.optString("currency", "").toUpperCase();
+            if (!coin.isEmpty()) {
+                result.put(coin, buildTradingInfoFromJson(coinObj));
             }
-        } catch (Exception ex) {
-            log.error("Ошибка получения данных Huobi: ", ex);
         }
-        return null;
+        return result;
     }
 
     private String fetchAllCoinsFromApi(ExchangeType exchange) {
         try {
             return webClient.get()
                     .uri(huobiApiProperties.getSpotConfigPath())
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.COIN_CONFIG)
                     .header("User-Agent", huobiApiProperties.getUserAgent())
                     .retrieve()
                     .bodyToMono(String.class)
@@ -94,36 +111,6 @@ public class HuobiTradingInfoProvider implements TradingInfoProvider {
         }
     }
 
-    private TradingInfoDTO parseCoinInfoFromJson(String json, String coin) {
-        try {
-            JSONObject root = new JSONObject(json);
-            if (!"200".equals(root.optString("code")) && !"0".equals(root.optString("code"))) {
-                log.warn("Huobi error: {}", root.optString("message"));
-                return stub();
-            }
-            JSONArray dataArr = root.optJSONArray("data");
-            if (dataArr == null || dataArr.isEmpty()) return stub();
-
-            JSONObject coinObj = findCoinObject(dataArr, coin);
-            if (coinObj == null) return stub();
-
-            return buildTradingInfoFromJson(coinObj);
-        } catch (Exception e) {
-            log.error("Ошибка парсинга JSON Huobi: ", e);
-            return stub();
-        }
-    }
-
-    private JSONObject findCoinObject(JSONArray dataArr, String coin) {
-        for (int i = 0; i < dataArr.length(); i++) {
-            JSONObject obj = dataArr.getJSONObject(i);
-            if (coin.equalsIgnoreCase(obj.optString("currency"))) {
-                return obj;
-            }
-        }
-        return null;
-    }
-
     private TradingInfoDTO buildTradingInfoFromJson(JSONObject coinObj) {
         JSONArray chains = coinObj.optJSONArray("chains");
         if (chains == null || chains.isEmpty()) return stub();
@@ -1,88 +1,113 @@
 package net.protsenko.spotfetchprice.service.provider;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
 import net.protsenko.spotfetchprice.dto.TradingNetworkInfoDTO;
 import net.protsenko.spotfetchprice.props.KucoinApiProperties;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 import static net.protsenko.spotfetchprice.util.KucoinApiSignUtils.sign;
 import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class KucoinTradingInfoProvider implements TradingInfoProvider {
 
     private final KucoinApiProperties kucoinApiProperties;
-    @Qualifier("tradingInfoRedisTemplate")
-    private final RedisTemplate<String, TradingInfoDTO> redisTemplate;
-    private final WebClient webClient = WebClient.builder()
-            .baseUrl(KucoinApiProperties.baseUrl)
-            .build();
+    private final WebClient webClient;
+    private final TradingInfoIndex index;
+
+    public KucoinTradingInfoProvider(
+            KucoinApiProperties kucoinApiProperties,
+            @Qualifier("tradingInfoRedisTemplate") RedisTemplate<String, TradingInfoDTO> redisTemplate,
+            TradingInfoProperties tradingInfoProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
+        this.kucoinApiProperties = kucoinApiProperties;
+        this.index = new TradingInfoIndex(ExchangeType.KUCOIN, this::fetchAllCoins, redisTemplate, tradingInfoProperties, exchangeMetrics);
+        this.webClient = WebClient.builder()
+                .baseUrl(KucoinApiProperties.baseUrl)
+                .exchangeStrategies(ExchangeStrategies.builder()
+                        .codecs(configurer -> configurer
+                                .defaultCodecs()
+                                .maxInMemorySize(20 * 1024 * 1024))
+                        .build())
+                .filter(rateLimiter.filter(ExchangeType.KUCOIN))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.KUCOIN))
+                .build();
+    }
 
     @Override
     public TradingInfoDTO getTradingInfo(ExchangeType exchange, CurrencyPair pair) {
-        String coin = pair.getBase().getCurrencyCode().toUpperCase();
-        String redisKey = buildRedisKey(coin);
-
-        TradingInfoDTO cached = getFromCache(redisKey);
-        if (cached != null) return cached;
-
-        try {
-            String response = fetchCoinInfoFromApi(exchange, coin);
-            TradingInfoDTO dto = parseTradingInfo(response);
-            if (dto != null) {
-                putToCache(redisKey, dto);
-                return dto;
-            }
-        } catch (Exception ex) {
-            log.error("KucoinTradingInfoProvider exception: ", ex);
-        }
-        return stub();
+        TradingInfoDTO info = index.get(pair.getBase().getCurrencyCode());
+        return info != null ? info : stub();
     }
 
-    private String buildRedisKey(String coin) {
-        return "tradingInfo:kucoin:" + coin;
+    @Override
+    public void refreshAll() {
+        index.refreshInBackground();
     }
 
-    private TradingInfoDTO getFromCache(String key) {
-        return redisTemplate.opsForValue().get(key);
-    }
+    private Map<String, TradingInfoDTO> fetchAllCoins() throws Exception {
+        String response = fetchAllCoinsFromApi(ExchangeType.KUCOIN);
+        if (response == null || response.isEmpty()) return Map.of();
 
-    private void putToCache(String key, TradingInfoDTO dto) {
-        redisTemplate.opsForValue().set(key, dto, 24, TimeUnit.HOURS);
+        JSONObject root = new JSONObject(response);
+        if (!"200000".equals(root.optString("code"))) {
+            log.warn("Kucoin error: {}", root.optString("msg"));
+            return Map.of();
+        }
+
+        JSONArray data = root.optJSONArray("data");
+        if (data == null || data.isEmpty()) return Map.of();
+
+        Map<String, TradingInfoDTO> byCoin = new HashMap<>(data.length() * 2);
+        for (int i = 0; i < data.length(); i++) {
+            JSONObject coinObj = data.getJSONObject(i);
+            String coin = coinObj.optString("currency", "").toUpperCase();
+            TradingInfoDTO dto = parseTradingInfo(coinObj);
+            if (!coin.isEmpty() && dto != null) {
+                byCoin.put(coin, dto);
+            }
+        }
+        return byCoin;
     }
 
-    private String fetchCoinInfoFromApi(ExchangeType exchange, String coin) throws Exception {
+    private String fetchAllCoinsFromApi(ExchangeType exchange) throws Exception {
         long timestamp = System.currentTimeMillis();
-        String url = KucoinApiProperties.baseUrl + coin;
-        String strToSign = timestamp + "GET" + "/api/v3/currencies/" + coin;
+        String strToSign = timestamp + "GET" + KucoinApiProperties.allCurrenciesPath;
         String signature = sign(strToSign, kucoinApiProperties.getSecret());
 
         return webClient.get()
-                .uri(url)
+                .uri(KucoinApiProperties.allCurrenciesPath)
+                .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.COIN_CONFIG)
                 .header("KC-API-KEY", kucoinApiProperties.getKey())
                 .header("KC-API-SIGN", signature)
                 .header("KC-API-TIMESTAMP", String.valueOf(timestamp))
                 .header("KC-API-PASSPHRASE", kucoinApiProperties.getPassphrase())
                 .retrieve()
                 .bodyToMono(String.class)
-                .timeout(Duration.ofSeconds(10))
+                .timeout(Duration.ofSeconds(60))
                 .onErrorResume(e -> {
                     log.error("Ошибка при вызове {} API: {}", exchange.name(), e.getMessage(), e);
                     return Mono.just("");
@@ -90,21 +115,9 @@ public class KucoinTradingInfoProvider implements TradingInfoProvider {
                 .block();
     }
 
-    private TradingInfoDTO parseTradingInfo(String response) {
-        if (response == null || response.isEmpty()) return null;
-
-        JSONObject root = new JSONObject(response);
-        if (!"200000".equals(root.optString("code"))) {
-            log.warn("Kucoin error: {}", root.optString("msg"));
-            return null;
-        }
-
-        JSONObject data = root.optJSONObject("data");
-        JSONArray chains = data != null ? data.optJSONArray("chains") : null;
-        if (chains == null || chains.isEmpty()) {
-            log.warn("Kucoin: chains empty");
-            return null;
-        }
+    private TradingInfoDTO parseTradingInfo(JSONObject coinObj) {
+        JSONArray chains = coinObj.optJSONArray("chains");
+        if (chains == null || chains.isEmpty()) return null;
 
         List<TradingNetworkInfoDTO> networks = new ArrayList<>();
         for (int i = 0; i < chains.length(); i++) {
@@ -4,10 +4,15 @@ import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
 import net.protsenko.spotfetchprice.dto.TradingNetworkInfoDTO;
 import net.protsenko.spotfetchprice.props.MEXCApiProperties;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
@@ -16,8 +21,9 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 import static net.protsenko.spotfetchprice.util.MEXCApiSignUtils.hmacSHA256Hex;
 import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
@@ -27,12 +33,18 @@ import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 public class MEXCTradingInfoProvider implements TradingInfoProvider {
 
     private final MEXCApiProperties apiProperties;
-    private final RedisTemplate<String, String> redisTemplate;
     private final WebClient webClient;
-
-    public MEXCTradingInfoProvider(MEXCApiProperties apiProperties, RedisTemplate<String, String> redisTemplate) {
+    private final TradingInfoIndex index;
+
+    public MEXCTradingInfoProvider(
+            MEXCApiProperties apiProperties,
+            @Qualifier("tradingInfoRedisTemplate") RedisTemplate<String, TradingInfoDTO> redisTemplate,
+            TradingInfoProperties tradingInfoProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
         this.apiProperties = apiProperties;
-        this.redisTemplate = redisTemplate;
+        this.index = new TradingInfoIndex(ExchangeType.MEXC, this::fetchAllCoins, redisTemplate, tradingInfoProperties, exchangeMetrics);
         this.webClient = WebClient.builder()
                 .baseUrl(apiProperties.getBaseUrl())
                 .exchangeStrategies(ExchangeStrategies.builder()
@@ -42,37 +54,36 @@ public class MEXCTradingInfoProvider implements TradingInfoProvider {
                         )
                         .build())
                 .clientConnector(apiProperties.createConnector())
+                .filter(rateLimiter.filter(ExchangeType.MEXC))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.MEXC))
                 .build();
     }
 
     @Override
     public TradingInfoDTO getTradingInfo(ExchangeType exchange, CurrencyPair pair) {
-        String coin = pair.getBase().getCurrencyCode().toUpperCase();
-
-        String allCoinsJson = getAllCoinsFromCache();
-        if (allCoinsJson == null) {
-            allCoinsJson = fetchAndCacheAllCoinsJson(exchange);
-            if (allCoinsJson == null) return stub();
-        }
-
-        return parseTradingInfoForCoin(allCoinsJson, coin);
+        TradingInfoDTO info = index.get(pair.getBase().getCurrencyCode());
+        return info != null ? info : stub();
     }
 
-    private String getAllCoinsFromCache() {
-        return redisTemplate.opsForValue().get(apiProperties.getRedisKeyAll());
+    @Override
+    public void refreshAll() {
+        index.refreshInBackground();
     }
 
-    private String fetchAndCacheAllCoinsJson(ExchangeType exchange) {
-        try {
-            String json = fetchAllCoinsFromApi(exchange);
-            if (json != null && !json.isEmpty()) {
-                redisTemplate.opsForValue().set(apiProperties.getRedisKeyAll(), json, 24, TimeUnit.HOURS);
-                return json;
+    private Map<String, TradingInfoDTO> fetchAllCoins() {
+        String json = fetchAllCoinsFromApi(ExchangeType.MEXC);
+        if (json == null || json.isEmpty()) return Map.of();
+
+        JSONArray arr = new JSONArray(json);
+        Map<String, TradingInfoDTO> result = new HashMap<>(arr.length() * 2);
+        for (int i = 0; i < arr.length(); i++) {
+            JSONObject coinObj = arr.getJSONObject(i);
+            String coin = coinObj.optString("coin", "").toUpperCase();
+            if (!coin.isEmpty()) {
+                result.put(coin, buildTradingInfoFromJson(coinObj));
             }
-        } catch (Exception ex) {
-            log.error("Ошибка получения данных MEXC: ", ex);
         }
-        return null;
+        return result;
     }
 
     private String fetchAllCoinsFromApi(ExchangeType exchange) {
@@ -85,6 +96,7 @@ public class MEXCTradingInfoProvider implements TradingInfoProvider {
         try {
             return webClient.get()
                     .uri(url)
+                    .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.COIN_CONFIG)
                     .header("X-MEXC-APIKEY", apiProperties.getKey())
                     .retrieve()
                     .bodyToMono(String.class)
@@ -100,29 +112,6 @@ public class MEXCTradingInfoProvider implements TradingInfoProvider {
         }
     }
 
-    private TradingInfoDTO parseTradingInfoForCoin(String json, String coin) {
-        try {
-            JSONArray arr = new JSONArray(json);
-            JSONObject coinObj = findCoinObject(arr, coin);
-            if (coinObj == null) return stub();
-
-            return buildTradingInfoFromJson(coinObj);
-        } catch (Exception ex) {
-            log.error("Ошибка парсинга MEXC: ", ex);
-            return stub();
-        }
-    }
-
-    private JSONObject findCoinObject(JSONArray arr, String coin) {
-        for (int i = 0; i < arr.length(); i++) {
-            JSONObject o = arr.getJSONObject(i);
-            if (coin.equalsIgnoreCase(o.optString("coin"))) {
-                return o;
-            }
-        }
-        return null;
-    }
-
     private TradingInfoDTO buildTradingInfoFromJson(JSONObject coinObj) {
         JSONArray networkList = coinObj.optJSONArray("networkList");
         if (networkList == null || networkList.isEmpty()) return stub();
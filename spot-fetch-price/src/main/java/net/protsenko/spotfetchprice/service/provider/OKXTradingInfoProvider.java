@@ -4,13 +4,18 @@ import lombok.extern.slf4j.Slf4j;
 import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
 import net.protsenko.spotfetchprice.dto.TradingNetworkInfoDTO;
 import net.protsenko.spotfetchprice.props.OKXApiProperties;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
 import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.ratelimit.ExchangeRateLimiter;
+import net.protsenko.spotfetchprice.service.ratelimit.RateLimitEndpoint;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
@@ -19,8 +24,9 @@ import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 import static net.protsenko.spotfetchprice.util.NetworkNormalizer.normalize;
 import static net.protsenko.spotfetchprice.util.OKXApiSignUtils.sign;
@@ -30,66 +36,83 @@ import static net.protsenko.spotfetchprice.util.OKXApiSignUtils.sign;
 public class OKXTradingInfoProvider implements TradingInfoProvider {
 
     private final OKXApiProperties okxApiProperties;
-    @Qualifier("tradingInfoRedisTemplate")
-    private final RedisTemplate<String, TradingInfoDTO> redisTemplate;
     private final WebClient webClient;
-
-    public OKXTradingInfoProvider(OKXApiProperties okxApiProperties, RedisTemplate<String, TradingInfoDTO> redisTemplate) {
+    private final TradingInfoIndex index;
+
+    public OKXTradingInfoProvider(
+            OKXApiProperties okxApiProperties,
+            @Qualifier("tradingInfoRedisTemplate") RedisTemplate<String, TradingInfoDTO> redisTemplate,
+            TradingInfoProperties tradingInfoProperties,
+            ExchangeRateLimiter rateLimiter,
+            ExchangeMetrics exchangeMetrics
+    ) {
         this.okxApiProperties = okxApiProperties;
-        this.redisTemplate = redisTemplate;
+        this.index = new TradingInfoIndex(ExchangeType.OKX, this::fetchAllCoins, redisTemplate, tradingInfoProperties, exchangeMetrics);
         this.webClient = WebClient.builder()
                 .baseUrl(okxApiProperties.getBaseUrl())
+                .exchangeStrategies(ExchangeStrategies.builder()
+                        .codecs(configurer -> configurer
+                                .defaultCodecs()
+                                .maxInMemorySize(okxApiProperties.getMaxInMemorySize()))
+                        .build())
+                .filter(rateLimiter.filter(ExchangeType.OKX))
+                .filter(exchangeMetrics.httpFilter(ExchangeType.OKX))
                 .build();
     }
 
     @Override
     public TradingInfoDTO getTradingInfo(ExchangeType exchange, CurrencyPair pair) {
-        String coin = pair.getBase().getCurrencyCode().toUpperCase();
-        String redisKey = buildRedisKey(coin);
-
-        TradingInfoDTO cached = getFromCache(redisKey);
-        if (cached != null) return cached;
-
-        try {
-            String response = fetchCoinInfoFromApi(exchange, coin);
-            TradingInfoDTO dto = parseTradingInfo(response);
-            if (dto != null) {
-                putToCache(redisKey, dto);
-                return dto;
-            }
-        } catch (Exception ex) {
-            log.error("Ошибка OKXTradingInfoProvider: ", ex);
-        }
-        return stub();
+        TradingInfoDTO info = index.get(pair.getBase().getCurrencyCode());
+        return info != null ? info : stub();
     }
 
-    private String buildRedisKey(String coin) {
-        return "tradingInfo:okx:" + coin;
+    @Override
+    public void refreshAll() {
+        index.refreshInBackground();
     }
 
-    private TradingInfoDTO getFromCache(String key) {
-        return redisTemplate.opsForValue().get(key);
-    }
+    private Map<String, TradingInfoDTO> fetchAllCoins() {
+        String response = fetchAllCoinsFromApi(ExchangeType.OKX);
+        if (response == null || response.isEmpty()) return Map.of();
+
+        JSONObject root = new JSONObject(response);
+        if (!"0".equals(root.optString("code"))) {
+            log.warn("OKX error: {}", root.optString("msg"));
+            return Map.of();
+        }
+
+        JSONArray dataArr = root.optJSONArray("data");
+        if (dataArr == null || dataArr.isEmpty()) return Map.of();
+
+        Map<String, List<TradingNetworkInfoDTO>> networksByCoin = new HashMap<>();
+        for (int i = 0; i < dataArr.length(); i++) {
+            JSONObject obj = dataArr.getJSONObject(i);
+            String coin = obj.optString("ccy", "").toUpperCase();
+            if (!coin.isEmpty()) {
+                networksByCoin.computeIfAbsent(coin, k -> new ArrayList<>()).add(parseNetwork(obj));
+            }
+        }
 
-    private void putToCache(String key, TradingInfoDTO dto) {
-        redisTemplate.opsForValue().set(key, dto, 24, TimeUnit.HOURS);
+        Map<String, TradingInfoDTO> byCoin = new HashMap<>(networksByCoin.size() * 2);
+        networksByCoin.forEach((coin, networks) -> byCoin.put(coin, new TradingInfoDTO(networks)));
+        return byCoin;
     }
 
-    private String fetchCoinInfoFromApi(ExchangeType exchange, String coin) {
+    private String fetchAllCoinsFromApi(ExchangeType exchange) {
         String method = "GET";
-        String query = "?ccy=" + coin;
-        String requestPathWithParams = okxApiProperties.getStopConfigPath() + query;
+        String requestPath = okxApiProperties.getStopConfigPath();
         String body = "";
 
         String timestamp = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
                 .withZone(ZoneOffset.UTC)
                 .format(Instant.now());
 
-        String preHash = timestamp + method + requestPathWithParams + body;
+        String preHash = timestamp + method + requestPath + body;
         String signature = sign(preHash, okxApiProperties.getSecret());
 
         return webClient.get()
-                .uri(requestPathWithParams)
+                .uri(requestPath)
+                .attribute(ExchangeRateLimiter.ENDPOINT_ATTRIBUTE, RateLimitEndpoint.COIN_CONFIG)
                 .header("OK-ACCESS-KEY", okxApiProperties.getKey())
                 .header("OK-ACCESS-SIGN", signature)
                 .header("OK-ACCESS-TIMESTAMP", timestamp)
@@ -97,7 +120,7 @@ public class OKXTradingInfoProvider implements TradingInfoProvider {
                 .header("Accept", "application/json")
                 .retrieve()
                 .bodyToMono(String.class)
-                .timeout(Duration.ofSeconds(10))
+                .timeout(Duration.ofSeconds(okxApiProperties.getResponseTimeoutSeconds()))
                 .onErrorResume(e -> {
                     log.error("Ошибка при вызове {} API: {}", exchange.name(), e.getMessage(), e);
                     return Mono.just("");
@@ -105,25 +128,6 @@ public class OKXTradingInfoProvider implements TradingInfoProvider {
                 .block();
     }
 
-    private TradingInfoDTO parseTradingInfo(String response) {
-        if (response == null || response.isEmpty()) return null;
-
-        JSONObject root = new JSONObject(response);
-        if (!"0".equals(root.optString("code"))) {
-            log.warn("OKX error: {}", root.optString("msg"));
-            return null;
-        }
-
-        JSONArray dataArr = root.optJSONArray("data");
-        if (dataArr == null || dataArr.isEmpty()) return null;
-
-        List<TradingNetworkInfoDTO> networks = new ArrayList<>();
-        for (int i = 0; i < dataArr.length(); i++) {
-            networks.add(parseNetwork(dataArr.getJSONObject(i)));
-        }
-        return new TradingInfoDTO(networks);
-    }
-
     private TradingNetworkInfoDTO parseNetwork(JSONObject obj) {
         String networkRaw = obj.optString("chain", "");
         String network = normalize(networkRaw);
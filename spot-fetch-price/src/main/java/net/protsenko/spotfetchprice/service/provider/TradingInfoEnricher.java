@@ -0,0 +1,138 @@
+package net.protsenko.spotfetchprice.service.provider;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.PriceSpreadResult;
+import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import net.protsenko.spotfetchprice.service.spread.NetProfitCalculator;
+import net.protsenko.spotfetchprice.service.spread.SpreadCandidate;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+public class TradingInfoEnricher {
+
+    private static final TradingInfoDTO UNAVAILABLE = new TradingInfoDTO(List.of());
+
+    private final TradingInfoProviderFactory providerFactory;
+    private final TradingInfoProperties properties;
+    private final ExchangeMetrics exchangeMetrics;
+    private final NetProfitCalculator netProfitCalculator;
+    private final ExecutorService executor;
+
+    public TradingInfoEnricher(
+            TradingInfoProviderFactory providerFactory,
+            TradingInfoProperties properties,
+            ExchangeMetrics exchangeMetrics,
+            NetProfitCalculator netProfitCalculator
+    ) {
+        this.providerFactory = providerFactory;
+        this.properties = properties;
+        this.exchangeMetrics = exchangeMetrics;
+        this.netProfitCalculator = netProfitCalculator;
+        this.executor = exchangeMetrics.virtualThreadExecutor("trading-info-enricher");
+    }
+
+    public PriceSpreadResult enrich(SpreadCandidate candidate) {
+        return enrich(List.of(candidate)).getFirst();
+    }
+
+    public List<PriceSpreadResult> enrich(List<SpreadCandidate> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Map<CoinKey, Future<TradingInfoDTO>> lookups = new HashMap<>();
+        for (SpreadCandidate candidate : candidates) {
+            submit(lookups, candidate.buyExchange(), candidate.pair());
+            submit(lookups, candidate.sellExchange(), candidate.pair());
+        }
+
+        Set<CoinKey> timedOut = new HashSet<>();
+        Map<CoinKey, TradingInfoDTO> resolved = await(lookups, timedOut);
+        if (!timedOut.isEmpty()) {
+            log.warn("Trading info enrichment deadline of {} ms reached: {} of {} lookups pending",
+                    properties.getEnrichmentTimeoutMs(), timedOut.size(), lookups.size());
+        }
+
+        long now = System.currentTimeMillis();
+        List<PriceSpreadResult> results = new ArrayList<>(candidates.size());
+        for (SpreadCandidate candidate : candidates) {
+            CoinKey buyKey = CoinKey.of(candidate.buyExchange(), candidate.pair());
+            CoinKey sellKey = CoinKey.of(candidate.sellExchange(), candidate.pair());
+            TradingInfoDTO buyInfo = resolved.get(buyKey);
+            TradingInfoDTO sellInfo = resolved.get(sellKey);
+            results.add(new PriceSpreadResult(
+                    candidate.pair(),
+                    candidate.buyExchange().name(), candidate.buyPrice(), candidate.buyVolume(),
+                    buyInfo != null ? buyInfo : UNAVAILABLE,
+                    candidate.sellExchange().name(), candidate.sellPrice(), candidate.sellVolume(),
+                    sellInfo != null ? sellInfo : UNAVAILABLE,
+                    candidate.sellPrice() - candidate.buyPrice(),
+                    candidate.profitPercent(),
+                    timedOut.contains(buyKey) || timedOut.contains(sellKey),
+                    candidate.snapshotTimestamp() > 0 ? now - candidate.snapshotTimestamp() : -1,
+                    candidate.depth(),
+                    netProfitCalculator.calculate(candidate, buyInfo, sellInfo)
+            ));
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(Map<CoinKey, Future<TradingInfoDTO>> lookups, ExchangeType exchange, CurrencyPair pair) {
+        lookups.computeIfAbsent(CoinKey.of(exchange, pair), key -> executor.submit(
+                () -> exchangeMetrics.recordCall(exchange, "trading-info-lookup",
+                        () -> providerFactory.getProvider(exchange).getTradingInfo(exchange, pair))));
+    }
+
+    private Map<CoinKey, TradingInfoDTO> await(Map<CoinKey, Future<TradingInfoDTO>> lookups, Set<CoinKey> timedOut) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getEnrichmentTimeoutMs());
+        Map<CoinKey, TradingInfoDTO> resolved = new HashMap<>(lookups.size() * 2);
+        for (Map.Entry<CoinKey, Future<TradingInfoDTO>> entry : lookups.entrySet()) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                TradingInfoDTO info = entry.getValue().get(remaining, TimeUnit.NANOSECONDS);
+                if (info != null) {
+                    resolved.put(entry.getKey(), info);
+                }
+            } catch (TimeoutException e) {
+                timedOut.add(entry.getKey());
+            } catch (ExecutionException e) {
+                log.warn("Trading info lookup for {} failed: {}", entry.getKey(), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return resolved;
+    }
+
+    private record CoinKey(ExchangeType exchange, String coin) {
+
+        static CoinKey of(ExchangeType exchange, CurrencyPair pair) {
+            return new CoinKey(exchange, pair.getBase().getCurrencyCode());
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package net.protsenko.spotfetchprice.service.provider;
+
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
+import net.protsenko.spotfetchprice.props.TradingInfoProperties;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.metrics.ExchangeMetrics;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+public class TradingInfoIndex {
+
+    private final ExchangeType exchangeType;
+    private final Callable<Map<String, TradingInfoDTO>> loader;
+    private final RedisTemplate<String, TradingInfoDTO> redisTemplate;
+    private final TradingInfoProperties properties;
+    private final ExchangeMetrics metrics;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Map<String, TradingInfoDTO> byCoin = Map.of();
+    private volatile long loadedAt;
+    private volatile long lastFailedAt;
+
+    public TradingInfoIndex(
+            ExchangeType exchangeType,
+            Callable<Map<String, TradingInfoDTO>> loader,
+            RedisTemplate<String, TradingInfoDTO> redisTemplate,
+            TradingInfoProperties properties,
+            ExchangeMetrics metrics
+    ) {
+        this.exchangeType = exchangeType;
+        this.loader = loader;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    public TradingInfoDTO get(String coin) {
+        String key = coin.toUpperCase();
+        Map<String, TradingInfoDTO> current = byCoin;
+        if (current.isEmpty()) {
+            metrics.recordCache("trading-info-index", exchangeType, false);
+            if (!isBackingOff()) {
+                refreshInBackground();
+            }
+            return readFromRedis(key);
+        }
+        if (System.currentTimeMillis() - loadedAt >= properties.getRefreshMs() && !isBackingOff()) {
+            refreshInBackground();
+        }
+        TradingInfoDTO info = current.get(key);
+        metrics.recordCache("trading-info-index", exchangeType, info != null);
+        return info;
+    }
+
+    public synchronized Map<String, TradingInfoDTO> refresh() {
+        Map<String, TradingInfoDTO> current = byCoin;
+        if (current.isEmpty() && isBackingOff()) {
+            return current;
+        }
+        try {
+            Map<String, TradingInfoDTO> loaded = metrics.recordCall(exchangeType, "trading-info", loader);
+            if (loaded != null && !loaded.isEmpty()) {
+                byCoin = Map.copyOf(loaded);
+                loadedAt = System.currentTimeMillis();
+                writeToRedis(byCoin);
+                log.info("{}: загружена торговая информация по {} монетам", exchangeType, loaded.size());
+                return byCoin;
+            }
+            log.warn("{}: пустая торговая информация, используется кеш ({} монет)", exchangeType, current.size());
+        } catch (Exception e) {
+            log.error("{}: ошибка обновления торговой информации: {}", exchangeType, e.getMessage());
+        }
+        lastFailedAt = System.currentTimeMillis();
+        return current;
+    }
+
+    public void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual()
+                .name("trading-info-" + exchangeType.name().toLowerCase())
+                .start(() -> {
+                    try {
+                        refresh();
+                    } finally {
+                        refreshing.set(false);
+                    }
+                });
+    }
+
+    private boolean isBackingOff() {
+        return System.currentTimeMillis() - lastFailedAt < properties.getRetryMs();
+    }
+
+    private TradingInfoDTO readFromRedis(String coin) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            TradingInfoDTO info = redisTemplate.opsForValue().get(redisKey(coin));
+            metrics.recordCache("trading-info-redis", exchangeType, info != null);
+            return info;
+        } catch (Exception e) {
+            log.warn("{}: ошибка чтения торговой информации из Redis: {}", exchangeType, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeToRedis(Map<String, TradingInfoDTO> infos) {
+        if (redisTemplate == null) {
+            return;
+        }
+        Duration ttl = Duration.ofMillis(properties.getRedisTtlMs());
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, TradingInfoDTO> ops = (RedisOperations<String, TradingInfoDTO>) operations;
+                    infos.forEach((coin, info) -> ops.opsForValue().set(redisKey(coin), info, ttl));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("{}: ошибка записи торговой информации в Redis: {}", exchangeType, e.getMessage());
+        }
+    }
+
+    private String redisKey(String coin) {
+        return "tradingInfo:" + exchangeType.name().toLowerCase() + ":" + coin;
+    }
+
+}
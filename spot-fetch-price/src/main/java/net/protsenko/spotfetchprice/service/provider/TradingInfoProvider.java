@@ -6,4 +6,7 @@ import org.knowm.xchange.currency.CurrencyPair;
 
 public interface TradingInfoProvider {
     TradingInfoDTO getTradingInfo(ExchangeType exchange, CurrencyPair pair);
+
+    default void refreshAll() {
+    }
 }
@@ -44,4 +44,8 @@ public class TradingInfoProviderFactory {
     public TradingInfoProvider getProvider(ExchangeType type) {
         return providers.getOrDefault(type, new StubTradingInfoProvider());
     }
+
+    public void refreshAll() {
+        providers.values().forEach(TradingInfoProvider::refreshAll);
+    }
 }
\ No newline at end of file
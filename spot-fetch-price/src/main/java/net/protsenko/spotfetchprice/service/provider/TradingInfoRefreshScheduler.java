@@ -0,0 +1,23 @@
+package net.protsenko.spotfetchprice.service.provider;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TradingInfoRefreshScheduler {
+
+    private final TradingInfoProviderFactory providerFactory;
+
+    @Scheduled(fixedRateString = "${trading-info.refresh-ms}")
+    public void scheduledRefresh() {
+        try {
+            providerFactory.refreshAll();
+        } catch (Exception e) {
+            log.error("Error during scheduled trading info refresh", e);
+        }
+    }
+}
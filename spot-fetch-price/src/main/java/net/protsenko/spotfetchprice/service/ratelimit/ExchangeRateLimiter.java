@@ -0,0 +1,138 @@
+package net.protsenko.spotfetchprice.service.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.props.RateLimitProperties;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class ExchangeRateLimiter {
+
+    public static final String ENDPOINT_ATTRIBUTE = ExchangeRateLimiter.class.getName() + ".endpoint";
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int IP_BANNED = 418;
+
+    private final RateLimitProperties properties;
+    private final TokenBucket[] buckets = new TokenBucket[ExchangeType.values().length];
+
+    public ExchangeRateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        long now = System.nanoTime();
+        for (ExchangeType exchangeType : ExchangeType.values()) {
+            RateLimitProperties.Limit limit = properties.limitFor(exchangeType);
+            buckets[exchangeType.ordinal()] = new TokenBucket(
+                    limit.getCapacity(), limit.getRefillPerSecond(), properties.getMinRateFraction(), now);
+        }
+    }
+
+    public ExchangeFilterFunction filter(ExchangeType exchangeType) {
+        return (request, next) -> Mono.defer(() -> {
+            if (!properties.isEnabled()) return next.exchange(request);
+
+            RateLimitEndpoint endpoint = request.attribute(ENDPOINT_ATTRIBUTE)
+                    .map(RateLimitEndpoint.class::cast)
+                    .orElse(RateLimitEndpoint.TICKERS);
+            Mono<ClientResponse> call = next.exchange(request)
+                    .doOnNext(response -> onResponse(exchangeType, response.statusCode(), response.headers().asHttpHeaders()));
+
+            long waitNanos = reserve(exchangeType, endpoint);
+            return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then(call) : call;
+        });
+    }
+
+    public void acquire(ExchangeType exchangeType, RateLimitEndpoint endpoint) {
+        if (!properties.isEnabled()) return;
+
+        long waitNanos = reserve(exchangeType, endpoint);
+        if (waitNanos <= 0) return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void onThrottled(ExchangeType exchangeType) {
+        pause(exchangeType, TOO_MANY_REQUESTS, properties.getThrottleCooldownMs());
+    }
+
+    private long reserve(ExchangeType exchangeType, RateLimitEndpoint endpoint) {
+        int weight = properties.limitFor(exchangeType).weightOf(endpoint);
+        return buckets[exchangeType.ordinal()].reserve(weight, System.nanoTime());
+    }
+
+    private void onResponse(ExchangeType exchangeType, HttpStatusCode status, HttpHeaders headers) {
+        if (status.value() == TOO_MANY_REQUESTS || status.value() == IP_BANNED) {
+            long defaultMs = status.value() == IP_BANNED ? properties.getBanCooldownMs() : properties.getThrottleCooldownMs();
+            pause(exchangeType, status.value(), retryAfterMs(headers, defaultMs));
+            return;
+        }
+
+        TokenBucket bucket = buckets[exchangeType.ordinal()];
+        bucket.succeeded();
+
+        Long remaining = firstLong(headers, properties.getRemainingHeaders());
+        if (remaining != null && remaining <= 0) {
+            long resumeInMs = resetInMs(headers);
+            bucket.exhausted(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(resumeInMs), System.nanoTime());
+            log.debug("Request budget for {} is exhausted, resuming in {} ms", exchangeType, resumeInMs);
+        }
+    }
+
+    private void pause(ExchangeType exchangeType, int status, long pauseMs) {
+        TokenBucket bucket = buckets[exchangeType.ordinal()];
+        bucket.throttled(TimeUnit.MILLISECONDS.toNanos(pauseMs), System.nanoTime());
+        log.warn("{} responded with {}, pausing requests for {} ms, rate lowered to {}/s",
+                exchangeType, status, pauseMs, String.format("%.2f", bucket.rate()));
+    }
+
+    private long retryAfterMs(HttpHeaders headers, long defaultMs) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) return defaultMs;
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return defaultMs;
+        }
+    }
+
+    private long resetInMs(HttpHeaders headers) {
+        Long reset = firstLong(headers, properties.getResetHeaders());
+        if (reset == null || reset <= 0) return properties.getExhaustedCooldownMs();
+
+        long now = System.currentTimeMillis();
+        long resetInMs;
+        if (reset > 1_000_000_000_000L) {
+            resetInMs = reset - now;
+        } else if (reset > 1_000_000_000L) {
+            resetInMs = TimeUnit.SECONDS.toMillis(reset) - now;
+        } else {
+            resetInMs = TimeUnit.SECONDS.toMillis(reset);
+        }
+        return Math.max(0, Math.min(resetInMs, properties.getBanCooldownMs()));
+    }
+
+    private Long firstLong(HttpHeaders headers, List<String> names) {
+        for (String name : names) {
+            String value = headers.getFirst(name);
+            if (value == null) continue;
+            try {
+                return (long) Double.parseDouble(value.trim());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,8 @@
+package net.protsenko.spotfetchprice.service.ratelimit;
+
+public enum RateLimitEndpoint {
+    TICKERS,
+    SYMBOLS,
+    COIN_CONFIG,
+    ORDER_BOOK
+}
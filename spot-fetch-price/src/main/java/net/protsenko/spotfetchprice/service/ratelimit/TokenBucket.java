@@ -0,0 +1,61 @@
+package net.protsenko.spotfetchprice.service.ratelimit;
+
+class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final double capacity;
+    private final double maxRate;
+    private final double minRate;
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double capacity, double refillPerSecond, double minRateFraction, long now) {
+        this.capacity = Math.max(1, capacity);
+        this.maxRate = Math.max(0.001, refillPerSecond);
+        this.minRate = maxRate * minRateFraction;
+        this.rate = maxRate;
+        this.tokens = this.capacity;
+        this.lastRefillNanos = now;
+    }
+
+    synchronized long reserve(int permits, long now) {
+        refill(now);
+        tokens -= permits;
+        long pause = Math.max(0, lastRefillNanos - now);
+        long debt = tokens >= 0 ? 0 : (long) (-tokens / rate * NANOS_PER_SECOND);
+        return pause + debt;
+    }
+
+    synchronized void throttled(long pauseNanos, long now) {
+        refill(now);
+        rate = Math.max(minRate, rate / 2);
+        pauseUntil(now + pauseNanos);
+    }
+
+    synchronized void exhausted(long resumeAtNanos, long now) {
+        refill(now);
+        pauseUntil(resumeAtNanos);
+    }
+
+    synchronized void succeeded() {
+        rate = Math.min(maxRate, rate + maxRate * 0.05);
+    }
+
+    synchronized double rate() {
+        return rate;
+    }
+
+    private void pauseUntil(long resumeAtNanos) {
+        tokens = Math.min(tokens, 0);
+        lastRefillNanos = Math.max(lastRefillNanos, resumeAtNanos);
+    }
+
+    private void refill(long now) {
+        if (now <= lastRefillNanos) return;
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * rate / NANOS_PER_SECOND);
+        lastRefillNanos = now;
+    }
+
+}
@@ -0,0 +1,105 @@
+package net.protsenko.spotfetchprice.service.spread;
+
+import lombok.RequiredArgsConstructor;
+import net.protsenko.spotfetchprice.dto.NetProfitDTO;
+import net.protsenko.spotfetchprice.dto.NotionalFillDTO;
+import net.protsenko.spotfetchprice.dto.TradingInfoDTO;
+import net.protsenko.spotfetchprice.dto.TradingNetworkInfoDTO;
+import net.protsenko.spotfetchprice.props.FeeProperties;
+import net.protsenko.spotfetchprice.service.market.UsdPriceResolver;
+import net.protsenko.spotfetchprice.util.NetworkNormalizer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class NetProfitCalculator {
+
+    private final FeeProperties properties;
+    private final UsdPriceResolver usdPriceResolver;
+
+    public NetProfitDTO calculate(SpreadCandidate candidate, TradingInfoDTO buyInfo, TradingInfoDTO sellInfo) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+
+        double grossPercent = candidate.profitPercent();
+        double notionalUsd = properties.getTradeNotionalUsd();
+        NotionalFillDTO fill = smallestFill(candidate);
+        if (fill != null) {
+            grossPercent = (fill.sellVwap() - fill.buyVwap()) / fill.buyVwap() * 100;
+            notionalUsd = fill.notionalUsd();
+        }
+
+        double takerPercent = properties.takerFeeOf(candidate.buyExchange())
+                + properties.takerFeeOf(candidate.sellExchange());
+
+        if (!hasNetworks(buyInfo) || !hasNetworks(sellInfo)) {
+            return new NetProfitDTO(null, -1, takerPercent, grossPercent - takerPercent, null, false);
+        }
+
+        TradingNetworkInfoDTO route = cheapestRoute(buyInfo, sellInfo);
+        if (route == null) {
+            return new NetProfitDTO(null, -1, takerPercent, grossPercent - takerPercent, false, false);
+        }
+
+        double quoteUsdPrice = usdPriceResolver.usdPrice(candidate.pair().getCounter().getCurrencyCode());
+        boolean feesKnown = route.withdrawFee() == 0
+                || route.withdrawFee() > 0 && notionalUsd > 0 && quoteUsdPrice > 0;
+        double withdrawPercent = feesKnown && route.withdrawFee() > 0
+                ? route.withdrawFee() * candidate.buyPrice() * quoteUsdPrice / notionalUsd * 100
+                : 0;
+        double feesPercent = takerPercent + withdrawPercent;
+        return new NetProfitDTO(
+                NetworkNormalizer.normalize(route.network()),
+                route.withdrawFee(),
+                feesPercent,
+                grossPercent - feesPercent,
+                true,
+                feesKnown
+        );
+    }
+
+    private TradingNetworkInfoDTO cheapestRoute(TradingInfoDTO buyInfo, TradingInfoDTO sellInfo) {
+        Set<String> depositNetworks = new HashSet<>();
+        for (TradingNetworkInfoDTO network : sellInfo.networks()) {
+            if (network.depositEnabled() && network.network() != null) {
+                depositNetworks.add(NetworkNormalizer.normalize(network.network()));
+            }
+        }
+
+        TradingNetworkInfoDTO cheapest = null;
+        for (TradingNetworkInfoDTO network : buyInfo.networks()) {
+            if (!network.withdrawEnabled() || network.network() == null
+                    || !depositNetworks.contains(NetworkNormalizer.normalize(network.network()))) {
+                continue;
+            }
+            if (cheapest == null || isCheaper(network, cheapest)) {
+                cheapest = network;
+            }
+        }
+        return cheapest;
+    }
+
+    private boolean isCheaper(TradingNetworkInfoDTO network, TradingNetworkInfoDTO current) {
+        if (current.withdrawFee() < 0) {
+            return network.withdrawFee() >= 0;
+        }
+        return network.withdrawFee() >= 0 && network.withdrawFee() < current.withdrawFee();
+    }
+
+    private boolean hasNetworks(TradingInfoDTO info) {
+        return info != null && info.networks() != null && !info.networks().isEmpty();
+    }
+
+    private NotionalFillDTO smallestFill(SpreadCandidate candidate) {
+        if (candidate.depth() == null || candidate.depth().fills().isEmpty()) {
+            return null;
+        }
+        NotionalFillDTO fill = candidate.depth().smallestFill();
+        return fill.filled() && fill.buyVwap() > 0 ? fill : null;
+    }
+
+}
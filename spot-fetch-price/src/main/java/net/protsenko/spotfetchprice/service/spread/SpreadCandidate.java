@@ -0,0 +1,25 @@
+package net.protsenko.spotfetchprice.service.spread;
+
+import net.protsenko.spotfetchprice.dto.DepthProfileDTO;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+
+public record SpreadCandidate(
+        CurrencyPair pair,
+        ExchangeType buyExchange,
+        double buyPrice,
+        double buyVolume,
+        ExchangeType sellExchange,
+        double sellPrice,
+        double sellVolume,
+        double profitPercent,
+        long snapshotTimestamp,
+        DepthProfileDTO depth
+) {
+
+    public SpreadCandidate withDepth(DepthProfileDTO depth) {
+        return new SpreadCandidate(pair, buyExchange, buyPrice, buyVolume, sellExchange, sellPrice, sellVolume,
+                profitPercent, snapshotTimestamp, depth);
+    }
+
+}
@@ -0,0 +1,88 @@
+package net.protsenko.spotfetchprice.service.spread;
+
+public final class SpreadKernel {
+
+    public static final long NO_SPREAD = -1L;
+    public static final long ALL_EXCHANGES = -1L;
+
+    private SpreadKernel() {
+    }
+
+    public static long findBest(double[] bid, double[] ask, double[] vol, int offset, int width, double minVolume) {
+        return findBest(bid, ask, vol, offset, width, minVolume, ALL_EXCHANGES);
+    }
+
+    public static long findBest(
+            double[] bid, double[] ask, double[] vol, int offset, int width, double minVolume, long exchangeMask
+    ) {
+        int minAsk = -1, secondMinAsk = -1, maxBid = -1, secondMaxBid = -1;
+        int valid = 0;
+
+        for (int i = 0; i < width; i++) {
+            if ((exchangeMask >>> i & 1L) == 0) {
+                continue;
+            }
+            int cell = offset + i;
+            double b = bid[cell];
+            double a = ask[cell];
+            if (!(b > 0 && a > 0 && vol[cell] >= minVolume)) {
+                continue;
+            }
+            valid++;
+            if (minAsk < 0 || a < ask[offset + minAsk]) {
+                secondMinAsk = minAsk;
+                minAsk = i;
+            } else if (secondMinAsk < 0 || a < ask[offset + secondMinAsk]) {
+                secondMinAsk = i;
+            }
+            if (maxBid < 0 || b > bid[offset + maxBid]) {
+                secondMaxBid = maxBid;
+                maxBid = i;
+            } else if (secondMaxBid < 0 || b > bid[offset + secondMaxBid]) {
+                secondMaxBid = i;
+            }
+        }
+
+        if (valid < 2) {
+            return NO_SPREAD;
+        }
+
+        int buy = minAsk;
+        int sell = maxBid;
+        if (minAsk == maxBid) {
+            double spread1 = secondMinAsk >= 0
+                    ? bid[offset + maxBid] - ask[offset + secondMinAsk]
+                    : Double.NEGATIVE_INFINITY;
+            double spread2 = secondMaxBid >= 0
+                    ? bid[offset + secondMaxBid] - ask[offset + minAsk]
+                    : Double.NEGATIVE_INFINITY;
+            if (spread1 > spread2) {
+                buy = secondMinAsk;
+            } else {
+                sell = secondMaxBid;
+            }
+        }
+
+        if (bid[offset + sell] - ask[offset + buy] <= 0) {
+            return NO_SPREAD;
+        }
+        return ((long) buy << 32) | sell;
+    }
+
+    public static int buyIndex(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    public static int sellIndex(long packed) {
+        return (int) packed;
+    }
+
+    public static double profitPercent(double buyPrice, double sellPrice) {
+        return (sellPrice - buyPrice) / buyPrice * 100.0;
+    }
+
+    public static boolean inWindow(double profitPercent, double minProfitPercent, double maxProfitPercent) {
+        return profitPercent >= minProfitPercent && profitPercent <= maxProfitPercent;
+    }
+
+}
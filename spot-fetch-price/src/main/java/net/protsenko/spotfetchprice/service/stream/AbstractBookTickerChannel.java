@@ -0,0 +1,52 @@
+package net.protsenko.spotfetchprice.service.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.knowm.xchange.currency.CurrencyPair;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public abstract class AbstractBookTickerChannel implements BookTickerChannel {
+
+    private final Map<String, CurrencyPair> symbolToPair = new ConcurrentHashMap<>();
+
+    protected abstract String toSymbol(CurrencyPair pair);
+
+    protected List<String> register(Collection<CurrencyPair> pairs) {
+        return pairs.stream()
+                .map(pair -> {
+                    String symbol = toSymbol(pair);
+                    symbolToPair.put(symbol, pair);
+                    return symbol;
+                })
+                .toList();
+    }
+
+    protected CurrencyPair pairOf(String symbol) {
+        return symbol == null ? null : symbolToPair.get(symbol);
+    }
+
+    protected static double toDouble(JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return Double.NaN;
+        }
+        if (node.isNumber()) {
+            return node.asDouble();
+        }
+        try {
+            return Double.parseDouble(node.asText());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    protected static double firstLevelPrice(JsonNode levels) {
+        if (levels == null || !levels.isArray() || levels.isEmpty()) {
+            return Double.NaN;
+        }
+        return toDouble(levels.get(0).get(0));
+    }
+
+}
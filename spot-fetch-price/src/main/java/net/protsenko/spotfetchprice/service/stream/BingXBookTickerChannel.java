@@ -0,0 +1,81 @@
+package net.protsenko.spotfetchprice.service.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+
+import java.util.Collection;
+import java.util.List;
+
+public class BingXBookTickerChannel extends AbstractBookTickerChannel {
+
+    private static final String DATA_TYPE_SUFFIX = "@bookTicker";
+
+    private final ObjectMapper objectMapper;
+
+    public BingXBookTickerChannel(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ExchangeType getExchangeType() {
+        return ExchangeType.BINGX;
+    }
+
+    @Override
+    public String getDefaultEndpoint() {
+        return "wss://open-api-ws.bingx.com/market";
+    }
+
+    @Override
+    public int getMaxPairsPerConnection() {
+        return 200;
+    }
+
+    @Override
+    public List<String> subscribeMessages(Collection<CurrencyPair> pairs) {
+        return register(pairs).stream()
+                .map(symbol -> objectMapper.createObjectNode()
+                        .put("id", symbol)
+                        .put("reqType", "sub")
+                        .put("dataType", symbol + DATA_TYPE_SUFFIX)
+                        .toString())
+                .toList();
+    }
+
+    @Override
+    public List<BookTickerUpdate> parse(JsonNode frame) {
+        String dataType = frame.path("dataType").asText("");
+        JsonNode data = frame.get("data");
+        if (!dataType.endsWith(DATA_TYPE_SUFFIX) || data == null) {
+            return List.of();
+        }
+        CurrencyPair pair = pairOf(data.path("s").asText(dataType.substring(0, dataType.length() - DATA_TYPE_SUFFIX.length())));
+        if (pair == null) {
+            return List.of();
+        }
+        return List.of(BookTickerUpdate.bidAsk(
+                pair,
+                toDouble(data.get("b")),
+                toDouble(data.get("a")),
+                data.path("E").asLong(System.currentTimeMillis())
+        ));
+    }
+
+    @Override
+    public String handleControl(String frame) {
+        return "Ping".equals(frame) ? "Pong" : null;
+    }
+
+    @Override
+    public boolean isCompressed() {
+        return true;
+    }
+
+    @Override
+    protected String toSymbol(CurrencyPair pair) {
+        return pair.getBase().getCurrencyCode() + "-" + pair.getCounter().getCurrencyCode();
+    }
+
+}
@@ -0,0 +1,48 @@
+package net.protsenko.spotfetchprice.service.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookTickerChannel {
+
+    ExchangeType getExchangeType();
+
+    String getDefaultEndpoint();
+
+    int getMaxPairsPerConnection();
+
+    List<String> subscribeMessages(Collection<CurrencyPair> pairs);
+
+    List<BookTickerUpdate> parse(JsonNode frame);
+
+    default Mono<String> resolveEndpoint(String endpoint) {
+        return Mono.just(endpoint);
+    }
+
+    default String handleControl(String frame) {
+        return null;
+    }
+
+    default String keepAliveMessage() {
+        return null;
+    }
+
+    default Duration keepAliveInterval() {
+        return Duration.ofSeconds(20);
+    }
+
+    default Duration subscribeInterval() {
+        return Duration.ofMillis(100);
+    }
+
+    default boolean isCompressed() {
+        return false;
+    }
+
+}
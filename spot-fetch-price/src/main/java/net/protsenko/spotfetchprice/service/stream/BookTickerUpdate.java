@@ -0,0 +1,18 @@
+package net.protsenko.spotfetchprice.service.stream;
+
+import org.knowm.xchange.currency.CurrencyPair;
+
+public record BookTickerUpdate(
+        CurrencyPair pair,
+        double bid,
+        double ask,
+        double last,
+        double volume,
+        long timestamp
+) {
+
+    public static BookTickerUpdate bidAsk(CurrencyPair pair, double bid, double ask, long timestamp) {
+        return new BookTickerUpdate(pair, bid, ask, Double.NaN, Double.NaN, timestamp);
+    }
+
+}
@@ -0,0 +1,83 @@
+package net.protsenko.spotfetchprice.service.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static net.protsenko.spotfetchprice.util.TikersUtils.partition;
+
+public class BybitBookTickerChannel extends AbstractBookTickerChannel {
+
+    private static final String TOPIC_PREFIX = "orderbook.1.";
+    private static final int ARGS_PER_MESSAGE = 10;
+
+    private final ObjectMapper objectMapper;
+
+    public BybitBookTickerChannel(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ExchangeType getExchangeType() {
+        return ExchangeType.BYBIT;
+    }
+
+    @Override
+    public String getDefaultEndpoint() {
+        return "wss://stream.bybit.com/v5/public/spot";
+    }
+
+    @Override
+    public int getMaxPairsPerConnection() {
+        return 500;
+    }
+
+    @Override
+    public List<String> subscribeMessages(Collection<CurrencyPair> pairs) {
+        List<String> messages = new ArrayList<>();
+        for (List<String> batch : partition(register(pairs), ARGS_PER_MESSAGE)) {
+            ObjectNode message = objectMapper.createObjectNode().put("op", "subscribe");
+            ArrayNode args = message.putArray("args");
+            batch.forEach(symbol -> args.add(TOPIC_PREFIX + symbol));
+            messages.add(message.toString());
+        }
+        return messages;
+    }
+
+    @Override
+    public List<BookTickerUpdate> parse(JsonNode frame) {
+        String topic = frame.path("topic").asText("");
+        if (!topic.startsWith(TOPIC_PREFIX)) {
+            return List.of();
+        }
+        JsonNode data = frame.path("data");
+        CurrencyPair pair = pairOf(data.path("s").asText(topic.substring(TOPIC_PREFIX.length())));
+        if (pair == null) {
+            return List.of();
+        }
+        return List.of(BookTickerUpdate.bidAsk(
+                pair,
+                firstLevelPrice(data.get("b")),
+                firstLevelPrice(data.get("a")),
+                frame.path("ts").asLong(System.currentTimeMillis())
+        ));
+    }
+
+    @Override
+    public String keepAliveMessage() {
+        return "{\"op\":\"ping\"}";
+    }
+
+    @Override
+    protected String toSymbol(CurrencyPair pair) {
+        return pair.getBase().getCurrencyCode() + pair.getCounter().getCurrencyCode();
+    }
+
+}
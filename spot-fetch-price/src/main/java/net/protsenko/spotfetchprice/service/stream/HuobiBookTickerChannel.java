@@ -0,0 +1,85 @@
+package net.protsenko.spotfetchprice.service.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+
+import java.util.Collection;
+import java.util.List;
+
+public class HuobiBookTickerChannel extends AbstractBookTickerChannel {
+
+    private final ObjectMapper objectMapper;
+
+    public HuobiBookTickerChannel(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ExchangeType getExchangeType() {
+        return ExchangeType.HUOBI;
+    }
+
+    @Override
+    public String getDefaultEndpoint() {
+        return "wss://api.huobi.pro/ws";
+    }
+
+    @Override
+    public int getMaxPairsPerConnection() {
+        return 200;
+    }
+
+    @Override
+    public List<String> subscribeMessages(Collection<CurrencyPair> pairs) {
+        return register(pairs).stream()
+                .map(symbol -> objectMapper.createObjectNode()
+                        .put("sub", "market." + symbol + ".bbo")
+                        .put("id", symbol)
+                        .toString())
+                .toList();
+    }
+
+    @Override
+    public List<BookTickerUpdate> parse(JsonNode frame) {
+        JsonNode tick = frame.get("tick");
+        if (tick == null) {
+            return List.of();
+        }
+        CurrencyPair pair = pairOf(tick.path("symbol").asText(null));
+        if (pair == null) {
+            return List.of();
+        }
+        return List.of(BookTickerUpdate.bidAsk(
+                pair,
+                toDouble(tick.get("bid")),
+                toDouble(tick.get("ask")),
+                frame.path("ts").asLong(System.currentTimeMillis())
+        ));
+    }
+
+    @Override
+    public String handleControl(String frame) {
+        if (!frame.startsWith("{\"ping\"")) {
+            return null;
+        }
+        try {
+            long ping = objectMapper.readTree(frame).path("ping").asLong();
+            return "{\"pong\":" + ping + "}";
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean isCompressed() {
+        return true;
+    }
+
+    @Override
+    protected String toSymbol(CurrencyPair pair) {
+        return (pair.getBase().getCurrencyCode() + pair.getCounter().getCurrencyCode()).toLowerCase();
+    }
+
+}
@@ -0,0 +1,111 @@
+package net.protsenko.spotfetchprice.service.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static net.protsenko.spotfetchprice.util.TikersUtils.partition;
+
+public class KucoinBookTickerChannel extends AbstractBookTickerChannel {
+
+    private static final String TOPIC_PREFIX = "/market/ticker:";
+    private static final String BULLET_URL = "https://api.kucoin.com/api/v1/bullet-public";
+    private static final int SYMBOLS_PER_TOPIC = 100;
+
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient = WebClient.create();
+
+    public KucoinBookTickerChannel(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ExchangeType getExchangeType() {
+        return ExchangeType.KUCOIN;
+    }
+
+    @Override
+    public String getDefaultEndpoint() {
+        return BULLET_URL;
+    }
+
+    @Override
+    public int getMaxPairsPerConnection() {
+        return 300;
+    }
+
+    @Override
+    public Mono<String> resolveEndpoint(String endpoint) {
+        if (!BULLET_URL.equals(endpoint)) {
+            return Mono.just(endpoint);
+        }
+        return webClient.post()
+                .uri(BULLET_URL)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(Duration.ofSeconds(10))
+                .map(response -> {
+                    JsonNode data = response.path("data");
+                    String server = data.path("instanceServers").path(0).path("endpoint").asText();
+                    String token = data.path("token").asText();
+                    return server + "?token=" + token + "&connectId=" + UUID.randomUUID();
+                });
+    }
+
+    @Override
+    public List<String> subscribeMessages(Collection<CurrencyPair> pairs) {
+        return partition(register(pairs), SYMBOLS_PER_TOPIC).stream()
+                .map(batch -> objectMapper.createObjectNode()
+                        .put("id", UUID.randomUUID().toString())
+                        .put("type", "subscribe")
+                        .put("topic", TOPIC_PREFIX + String.join(",", batch))
+                        .put("response", true)
+                        .toString())
+                .toList();
+    }
+
+    @Override
+    public List<BookTickerUpdate> parse(JsonNode frame) {
+        String topic = frame.path("topic").asText("");
+        JsonNode data = frame.get("data");
+        if (!"message".equals(frame.path("type").asText()) || !topic.startsWith(TOPIC_PREFIX) || data == null) {
+            return List.of();
+        }
+        CurrencyPair pair = pairOf(topic.substring(TOPIC_PREFIX.length()));
+        if (pair == null) {
+            return List.of();
+        }
+        return List.of(new BookTickerUpdate(
+                pair,
+                toDouble(data.get("bestBid")),
+                toDouble(data.get("bestAsk")),
+                toDouble(data.get("price")),
+                Double.NaN,
+                data.path("time").asLong(System.currentTimeMillis())
+        ));
+    }
+
+    @Override
+    public String keepAliveMessage() {
+        return "{\"id\":\"" + UUID.randomUUID() + "\",\"type\":\"ping\"}";
+    }
+
+    @Override
+    public Duration subscribeInterval() {
+        return Duration.ofMillis(200);
+    }
+
+    @Override
+    protected String toSymbol(CurrencyPair pair) {
+        return pair.getBase().getCurrencyCode() + "-" + pair.getCounter().getCurrencyCode();
+    }
+
+}
@@ -0,0 +1,71 @@
+package net.protsenko.spotfetchprice.service.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+
+import java.util.Collection;
+import java.util.List;
+
+public class MEXCBookTickerChannel extends AbstractBookTickerChannel {
+
+    private static final String CHANNEL_PREFIX = "spot@public.bookTicker.v3.api@";
+
+    private final ObjectMapper objectMapper;
+
+    public MEXCBookTickerChannel(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ExchangeType getExchangeType() {
+        return ExchangeType.MEXC;
+    }
+
+    @Override
+    public String getDefaultEndpoint() {
+        return "wss://wbs.mexc.com/ws";
+    }
+
+    @Override
+    public int getMaxPairsPerConnection() {
+        return 30;
+    }
+
+    @Override
+    public List<String> subscribeMessages(Collection<CurrencyPair> pairs) {
+        ObjectNode message = objectMapper.createObjectNode().put("method", "SUBSCRIPTION");
+        ArrayNode params = message.putArray("params");
+        register(pairs).forEach(symbol -> params.add(CHANNEL_PREFIX + symbol));
+        return List.of(message.toString());
+    }
+
+    @Override
+    public List<BookTickerUpdate> parse(JsonNode frame) {
+        JsonNode data = frame.get("d");
+        CurrencyPair pair = pairOf(frame.path("s").asText(null));
+        if (data == null || pair == null) {
+            return List.of();
+        }
+        return List.of(BookTickerUpdate.bidAsk(
+                pair,
+                toDouble(data.get("b")),
+                toDouble(data.get("a")),
+                frame.path("t").asLong(System.currentTimeMillis())
+        ));
+    }
+
+    @Override
+    public String keepAliveMessage() {
+        return "{\"method\":\"PING\"}";
+    }
+
+    @Override
+    protected String toSymbol(CurrencyPair pair) {
+        return pair.getBase().getCurrencyCode() + pair.getCounter().getCurrencyCode();
+    }
+
+}
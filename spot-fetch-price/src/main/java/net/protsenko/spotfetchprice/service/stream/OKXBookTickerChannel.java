@@ -0,0 +1,96 @@
+package net.protsenko.spotfetchprice.service.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.knowm.xchange.currency.CurrencyPair;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static net.protsenko.spotfetchprice.util.TikersUtils.partition;
+
+public class OKXBookTickerChannel extends AbstractBookTickerChannel {
+
+    private static final int ARGS_PER_MESSAGE = 100;
+
+    private final ObjectMapper objectMapper;
+
+    public OKXBookTickerChannel(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ExchangeType getExchangeType() {
+        return ExchangeType.OKX;
+    }
+
+    @Override
+    public String getDefaultEndpoint() {
+        return "wss://ws.okx.com:8443/ws/v5/public";
+    }
+
+    @Override
+    public int getMaxPairsPerConnection() {
+        return 500;
+    }
+
+    @Override
+    public List<String> subscribeMessages(Collection<CurrencyPair> pairs) {
+        List<String> messages = new ArrayList<>();
+        for (List<String> batch : partition(register(pairs), ARGS_PER_MESSAGE)) {
+            ObjectNode message = objectMapper.createObjectNode().put("op", "subscribe");
+            ArrayNode args = message.putArray("args");
+            batch.forEach(instId -> args.addObject().put("channel", "tickers").put("instId", instId));
+            messages.add(message.toString());
+        }
+        return messages;
+    }
+
+    @Override
+    public List<BookTickerUpdate> parse(JsonNode frame) {
+        JsonNode data = frame.get("data");
+        if (data == null || !data.isArray()) {
+            return List.of();
+        }
+        List<BookTickerUpdate> updates = new ArrayList<>(data.size());
+        for (JsonNode ticker : data) {
+            CurrencyPair pair = pairOf(ticker.path("instId").asText(null));
+            if (pair == null) continue;
+            updates.add(new BookTickerUpdate(
+                    pair,
+                    toDouble(ticker.get("bidPx")),
+                    toDouble(ticker.get("askPx")),
+                    toDouble(ticker.get("last")),
+                    toDouble(ticker.get("vol24h")),
+                    ticker.path("ts").asLong(System.currentTimeMillis())
+            ));
+        }
+        return updates;
+    }
+
+    @Override
+    public String keepAliveMessage() {
+        return "ping";
+    }
+
+    @Override
+    public Duration keepAliveInterval() {
+        return Duration.ofSeconds(25);
+    }
+
+    @Override
+    public Duration subscribeInterval() {
+        return Duration.ofMillis(350);
+    }
+
+    @Override
+    protected String toSymbol(CurrencyPair pair) {
+        return pair.getBase().getCurrencyCode() + "-" + pair.getCounter().getCurrencyCode();
+    }
+
+}
@@ -0,0 +1,275 @@
+package net.protsenko.spotfetchprice.service.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.dto.OrderBookDTO;
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.props.StreamProperties;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import net.protsenko.spotfetchprice.service.exchange.ExchangeClient;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static net.protsenko.spotfetchprice.util.TikersUtils.partition;
+
+@Slf4j
+public class StreamingExchangeClient implements ExchangeClient {
+
+    private final ExchangeClient restClient;
+    private final BookTickerChannel channel;
+    private final StreamProperties streamProperties;
+    private final ObjectMapper objectMapper;
+    private final WebSocketClient webSocketClient = new ReactorNettyWebSocketClient();
+    private final Map<CurrencyPair, TickerDTO> book = new ConcurrentHashMap<>();
+    private final Map<CurrencyPair, Integer> connectionOf = new ConcurrentHashMap<>();
+    private final List<AtomicLong> lastFrameAt = new CopyOnWriteArrayList<>();
+    private final List<Thread> connections = new ArrayList<>();
+    private volatile boolean running;
+
+    public StreamingExchangeClient(
+            ExchangeClient restClient,
+            BookTickerChannel channel,
+            StreamProperties streamProperties,
+            ObjectMapper objectMapper
+    ) {
+        this.restClient = restClient;
+        this.channel = channel;
+        this.streamProperties = streamProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public List<TickerDTO> getTickers(Set<CurrencyPair> instruments) throws IOException {
+        if (!running) {
+            start();
+        }
+        if (book.isEmpty()) {
+            return restClient.getTickers(instruments);
+        }
+        Set<CurrencyPair> requested = instruments == null || instruments.isEmpty() ? book.keySet() : instruments;
+        long now = System.currentTimeMillis();
+        List<TickerDTO> result = new ArrayList<>(requested.size());
+        Set<CurrencyPair> stale = new HashSet<>();
+        for (CurrencyPair pair : requested) {
+            TickerDTO ticker = book.get(pair);
+            if (ticker == null) {
+                continue;
+            }
+            if (isLive(pair, now)) {
+                result.add(ticker);
+            } else {
+                stale.add(pair);
+            }
+        }
+        if (!stale.isEmpty()) {
+            log.debug("{}: {} пар без живого WebSocket-соединения, запрос через REST", getExchangeType(), stale.size());
+            for (TickerDTO ticker : restClient.getTickers(stale)) {
+                book.put(new CurrencyPair(ticker.baseCurrency(), ticker.counterCurrency()), ticker);
+                result.add(ticker);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<CurrencyPair> getCurrencyPairs() throws IOException {
+        return restClient.getCurrencyPairs();
+    }
+
+    @Override
+    public OrderBookDTO getOrderBook(CurrencyPair pair, int depth) throws IOException {
+        return restClient.getOrderBook(pair, depth);
+    }
+
+    @Override
+    public ExchangeType getExchangeType() {
+        return channel.getExchangeType();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+        List<CurrencyPair> pairs = restClient.getCurrencyPairs().stream()
+                .filter(pair -> streamProperties.getQuotes().contains(pair.getCounter().getCurrencyCode()))
+                .limit(streamProperties.getMaxPairs())
+                .toList();
+        if (pairs.isEmpty()) {
+            throw new IOException("Нет пар для подписки на " + getExchangeType());
+        }
+
+        for (TickerDTO ticker : restClient.getTickers(Set.copyOf(pairs))) {
+            book.put(new CurrencyPair(ticker.baseCurrency(), ticker.counterCurrency()), ticker);
+        }
+
+        running = true;
+        List<List<CurrencyPair>> chunks = partition(pairs, channel.getMaxPairsPerConnection());
+        long seededAt = System.currentTimeMillis();
+        for (int i = 0; i < chunks.size(); i++) {
+            int connection = i;
+            List<CurrencyPair> chunk = chunks.get(i);
+            AtomicLong lastFrame = new AtomicLong(seededAt);
+            lastFrameAt.add(lastFrame);
+            chunk.forEach(pair -> connectionOf.put(pair, connection));
+            connections.add(Thread.ofVirtual()
+                    .name("ws-" + getExchangeType().name().toLowerCase() + "-" + i)
+                    .start(() -> connectLoop(chunk, lastFrame)));
+        }
+        log.info("{}: запущено {} WebSocket-соединений на {} пар", getExchangeType(), chunks.size(), pairs.size());
+    }
+
+    public synchronized void stop() {
+        running = false;
+        connections.forEach(Thread::interrupt);
+        connections.clear();
+        connectionOf.clear();
+        lastFrameAt.clear();
+    }
+
+    private boolean isLive(CurrencyPair pair, long now) {
+        Integer connection = connectionOf.get(pair);
+        return connection != null
+                && connection < lastFrameAt.size()
+                && now - lastFrameAt.get(connection).get() < streamProperties.getIdleTimeoutMs();
+    }
+
+    private void connectLoop(List<CurrencyPair> pairs, AtomicLong lastFrame) {
+        int failures = 0;
+        while (running) {
+            long startedAt = System.currentTimeMillis();
+            try {
+                session(pairs, lastFrame);
+                log.info("{}: WebSocket-соединение закрыто сервером, переподключение", getExchangeType());
+            } catch (Exception e) {
+                log.warn("{}: ошибка WebSocket-соединения: {}", getExchangeType(), e.getMessage());
+            }
+            if (System.currentTimeMillis() - startedAt > streamProperties.getIdleTimeoutMs()) {
+                failures = 0;
+            }
+            failures++;
+            if (!sleep(backoff(failures))) {
+                return;
+            }
+        }
+    }
+
+    private void session(List<CurrencyPair> pairs, AtomicLong lastFrame) {
+        String endpoint = streamProperties.getEndpoints().getOrDefault(getExchangeType(), channel.getDefaultEndpoint());
+        URI uri = URI.create(channel.resolveEndpoint(endpoint).block(Duration.ofSeconds(15)));
+        webSocketClient.execute(uri, session -> handle(session, pairs, lastFrame)).block();
+    }
+
+    private Mono<Void> handle(WebSocketSession session, List<CurrencyPair> pairs, AtomicLong lastFrame) {
+        Sinks.Many<String> replies = Sinks.many().unicast().onBackpressureBuffer();
+
+        Flux<String> subscribe = Flux.fromIterable(channel.subscribeMessages(pairs))
+                .delayElements(channel.subscribeInterval());
+        Flux<String> keepAlive = channel.keepAliveMessage() == null
+                ? Flux.never()
+                : Flux.interval(channel.keepAliveInterval()).map(tick -> channel.keepAliveMessage());
+
+        Mono<Void> output = session.send(Flux.merge(subscribe, keepAlive, replies.asFlux()).map(session::textMessage));
+        Mono<Void> input = session.receive()
+                .timeout(Duration.ofMillis(streamProperties.getIdleTimeoutMs()))
+                .doOnNext(message -> lastFrame.set(System.currentTimeMillis()))
+                .map(this::decode)
+                .doOnNext(frame -> onFrame(frame, replies))
+                .then();
+
+        return Mono.firstWithSignal(input, output);
+    }
+
+    private String decode(WebSocketMessage message) {
+        if (message.getType() == WebSocketMessage.Type.BINARY && channel.isCompressed()) {
+            byte[] bytes = new byte[message.getPayload().readableByteCount()];
+            message.getPayload().read(bytes);
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                log.warn("{}: не удалось распаковать фрейм: {}", getExchangeType(), e.getMessage());
+                return "";
+            }
+        }
+        return message.getPayloadAsText();
+    }
+
+    private void onFrame(String frame, Sinks.Many<String> replies) {
+        String reply = channel.handleControl(frame);
+        if (reply != null) {
+            replies.tryEmitNext(reply);
+            return;
+        }
+        if (frame.isEmpty() || frame.charAt(0) != '{') {
+            return;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(frame);
+            for (BookTickerUpdate update : channel.parse(node)) {
+                apply(update);
+            }
+        } catch (Exception e) {
+            log.debug("{}: пропущен фрейм: {}", getExchangeType(), e.getMessage());
+        }
+    }
+
+    private void apply(BookTickerUpdate update) {
+        book.compute(update.pair(), (pair, previous) -> new TickerDTO(
+                pair.getBase().getCurrencyCode(),
+                pair.getCounter().getCurrencyCode(),
+                merge(update.last(), previous == null ? 0 : previous.last()),
+                merge(update.bid(), previous == null ? 0 : previous.bid()),
+                merge(update.ask(), previous == null ? 0 : previous.ask()),
+                merge(update.volume(), previous == null ? 0 : previous.volume()),
+                update.timestamp()
+        ));
+    }
+
+    private static double merge(double value, double previous) {
+        return Double.isNaN(value) ? previous : value;
+    }
+
+    private long backoff(int failures) {
+        long base = streamProperties.getReconnectInitialMs() << Math.min(failures - 1, 16);
+        long capped = Math.min(base, streamProperties.getReconnectMaxMs());
+        return capped + ThreadLocalRandom.current().nextLong(Math.max(1, capped / 4));
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
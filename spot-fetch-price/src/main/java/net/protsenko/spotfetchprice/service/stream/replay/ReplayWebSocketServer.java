@@ -0,0 +1,113 @@
+package net.protsenko.spotfetchprice.service.stream.replay;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.protsenko.spotfetchprice.props.StreamProperties;
+import net.protsenko.spotfetchprice.service.ExchangeType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.websocket.WebsocketInbound;
+import reactor.netty.http.websocket.WebsocketOutbound;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "exchange.stream.replay", name = "enabled", havingValue = "true")
+public class ReplayWebSocketServer {
+
+    private static final Set<ExchangeType> COMPRESSED = Set.of(ExchangeType.BINGX, ExchangeType.HUOBI);
+
+    private final StreamProperties streamProperties;
+    private final ResourceLoader resourceLoader;
+    private DisposableServer server;
+
+    @PostConstruct
+    public void start() {
+        Map<ExchangeType, List<String>> recordings = new EnumMap<>(ExchangeType.class);
+        for (ExchangeType exchangeType : streamProperties.getExchanges()) {
+            List<String> frames = loadFrames(exchangeType);
+            if (!frames.isEmpty()) {
+                recordings.put(exchangeType, frames);
+            }
+        }
+
+        StreamProperties.Replay replay = streamProperties.getReplay();
+        server = HttpServer.create()
+                .port(replay.getPort())
+                .route(routes -> recordings.forEach((exchangeType, frames) ->
+                        routes.ws("/" + exchangeType.name().toLowerCase(),
+                                (in, out) -> replay(exchangeType, frames, in, out))))
+                .bindNow();
+        log.info("Replay WebSocket server listening on port {} for {}", server.port(), recordings.keySet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    private Mono<Void> replay(ExchangeType exchangeType, List<String> frames, WebsocketInbound in, WebsocketOutbound out) {
+        Flux<String> inbound = in.receive().asString().share();
+        Flux<WebSocketFrame> outbound = inbound.next()
+                .thenMany(Flux.interval(Duration.ofMillis(streamProperties.getReplay().getFrameIntervalMs())))
+                .map(tick -> toFrame(exchangeType, frames.get((int) (tick % frames.size()))));
+
+        return Mono.firstWithSignal(inbound.then(), out.sendObject(outbound).then());
+    }
+
+    private WebSocketFrame toFrame(ExchangeType exchangeType, String frame) {
+        if (!COMPRESSED.contains(exchangeType)) {
+            return new TextWebSocketFrame(frame);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(frame.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new BinaryWebSocketFrame(Unpooled.wrappedBuffer(bytes.toByteArray()));
+    }
+
+    private List<String> loadFrames(ExchangeType exchangeType) {
+        Resource resource = resourceLoader.getResource(
+                streamProperties.getReplay().getFramesLocation() + exchangeType.name().toLowerCase() + ".jsonl");
+        if (!resource.exists()) {
+            log.warn("No replay frames for {} at {}", exchangeType, resource.getDescription());
+            return List.of();
+        }
+        try {
+            return resource.getContentAsString(StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.isBlank())
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Failed to read replay frames for {}: {}", exchangeType, e.getMessage());
+            return List.of();
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+package net.protsenko.spotfetchprice.util;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import net.protsenko.spotfetchprice.dto.ExchangeTickersDTO;
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class TickerBinaryCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final byte FLAG_LZ4 = 1;
+    private static final int HEADER_SIZE = 2;
+    private static final int RECORD_SIZE = 2 * Character.BYTES + 4 * Double.BYTES + Long.BYTES;
+    private static final int MAX_CODES = Character.MAX_VALUE;
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private TickerBinaryCodec() {
+    }
+
+    public static boolean isBinary(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_SIZE && bytes[0] == VERSION;
+    }
+
+    public static byte[] encode(ExchangeTickersDTO snapshot, boolean compress) {
+        List<TickerDTO> tickers = snapshot.tickers() != null ? snapshot.tickers() : List.of();
+        Map<String, Integer> codeIds = new HashMap<>();
+        List<byte[]> codes = new ArrayList<>();
+        int[] baseIds = new int[tickers.size()];
+        int[] counterIds = new int[tickers.size()];
+        for (int i = 0; i < tickers.size(); i++) {
+            baseIds[i] = intern(tickers.get(i).baseCurrency(), codeIds, codes);
+            counterIds[i] = intern(tickers.get(i).counterCurrency(), codeIds, codes);
+        }
+
+        byte[] exchangeName = utf8(snapshot.exchangeName());
+        int size = Short.BYTES + exchangeName.length + Long.BYTES + Character.BYTES + Integer.BYTES
+                + tickers.size() * RECORD_SIZE;
+        for (byte[] code : codes) {
+            size += Short.BYTES + code.length;
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(size);
+        putString(body, exchangeName);
+        body.putLong(snapshot.timestamp());
+        body.putChar((char) codes.size());
+        for (byte[] code : codes) {
+            putString(body, code);
+        }
+        body.putInt(tickers.size());
+        for (int i = 0; i < tickers.size(); i++) {
+            TickerDTO ticker = tickers.get(i);
+            body.putChar((char) baseIds[i]);
+            body.putChar((char) counterIds[i]);
+            body.putDouble(ticker.last());
+            body.putDouble(ticker.bid());
+            body.putDouble(ticker.ask());
+            body.putDouble(ticker.volume());
+            body.putLong(ticker.timestamp());
+        }
+
+        return compress ? compressed(body.array()) : plain(body.array());
+    }
+
+    public static ExchangeTickersDTO decode(byte[] bytes) {
+        if (!isBinary(bytes)) {
+            throw new IllegalArgumentException("Unsupported ticker codec version");
+        }
+        ByteBuffer body = (bytes[1] & FLAG_LZ4) != 0
+                ? ByteBuffer.wrap(decompress(bytes))
+                : ByteBuffer.wrap(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+
+        String exchangeName = getString(body);
+        long timestamp = body.getLong();
+        String[] codes = new String[body.getChar()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = getString(body);
+        }
+        int count = body.getInt();
+        List<TickerDTO> tickers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String base = codes[body.getChar()];
+            String counter = codes[body.getChar()];
+            tickers.add(new TickerDTO(
+                    base, counter,
+                    body.getDouble(), body.getDouble(), body.getDouble(), body.getDouble(),
+                    body.getLong()
+            ));
+        }
+        return new ExchangeTickersDTO(exchangeName, tickers, timestamp);
+    }
+
+    private static int intern(String code, Map<String, Integer> codeIds, List<byte[]> codes) {
+        Integer id = codeIds.get(code);
+        if (id != null) {
+            return id;
+        }
+        if (codes.size() == MAX_CODES) {
+            throw new IllegalArgumentException("Too many distinct currency codes in snapshot");
+        }
+        codeIds.put(code, codes.size());
+        codes.add(utf8(code));
+        return codes.size() - 1;
+    }
+
+    private static byte[] plain(byte[] body) {
+        byte[] out = new byte[HEADER_SIZE + body.length];
+        out[0] = VERSION;
+        System.arraycopy(body, 0, out, HEADER_SIZE, body.length);
+        return out;
+    }
+
+    private static byte[] compressed(byte[] body) {
+        int prefix = HEADER_SIZE + Integer.BYTES;
+        byte[] out = new byte[prefix + COMPRESSOR.maxCompressedLength(body.length)];
+        out[0] = VERSION;
+        out[1] = FLAG_LZ4;
+        ByteBuffer.wrap(out, HEADER_SIZE, Integer.BYTES).putInt(body.length);
+        int length = COMPRESSOR.compress(body, 0, body.length, out, prefix, out.length - prefix);
+        byte[] trimmed = new byte[prefix + length];
+        System.arraycopy(out, 0, trimmed, 0, trimmed.length);
+        return trimmed;
+    }
+
+    private static byte[] decompress(byte[] bytes) {
+        int length = ByteBuffer.wrap(bytes, HEADER_SIZE, Integer.BYTES).getInt();
+        byte[] body = new byte[length];
+        DECOMPRESSOR.decompress(bytes, HEADER_SIZE + Integer.BYTES, body, 0, length);
+        return body;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] value = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,86 @@
+package net.protsenko.spotfetchprice.util;
+
+import net.protsenko.spotfetchprice.dto.ExchangeTickersDTO;
+import net.protsenko.spotfetchprice.dto.TickerDTO;
+import net.protsenko.spotfetchprice.props.ExchangeCacheProperties.RedisCodec;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class TickerRedisSerializer<T> implements RedisSerializer<T> {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final Class<T> type;
+    private final Function<T, ExchangeTickersDTO> toSnapshot;
+    private final Function<ExchangeTickersDTO, T> fromSnapshot;
+    private final RedisCodec codec;
+    private final boolean compress;
+
+    private TickerRedisSerializer(
+            Class<T> type,
+            Function<T, ExchangeTickersDTO> toSnapshot,
+            Function<ExchangeTickersDTO, T> fromSnapshot,
+            RedisCodec codec,
+            boolean compress
+    ) {
+        this.type = type;
+        this.toSnapshot = toSnapshot;
+        this.fromSnapshot = fromSnapshot;
+        this.codec = codec;
+        this.compress = compress;
+    }
+
+    public static TickerRedisSerializer<ExchangeTickersDTO> forSnapshots(RedisCodec codec, boolean compress) {
+        return new TickerRedisSerializer<>(
+                ExchangeTickersDTO.class, Function.identity(), Function.identity(), codec, compress);
+    }
+
+    public static TickerRedisSerializer<TickerDTO> forTickers(RedisCodec codec) {
+        return new TickerRedisSerializer<>(
+                TickerDTO.class,
+                ticker -> new ExchangeTickersDTO("", List.of(ticker), ticker.timestamp()),
+                snapshot -> snapshot.tickers().isEmpty() ? null : snapshot.tickers().getFirst(),
+                codec,
+                false
+        );
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (codec == RedisCodec.JSON) {
+            return json.serialize(value);
+        }
+        try {
+            return TickerBinaryCodec.encode(toSnapshot.apply(value), compress);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not encode " + type.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (!TickerBinaryCodec.isBinary(bytes)) {
+            return type.cast(json.deserialize(bytes));
+        }
+        try {
+            return fromSnapshot.apply(TickerBinaryCodec.decode(bytes));
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not decode " + type.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return type;
+    }
+
+}
@@ -0,0 +1,11 @@
+package net.protsenko.cryptobridge.telegramnotifier.dto;
+
+import java.util.List;
+
+public record DepthProfileDTO(
+        double executableVolume,
+        double executableNotionalUsd,
+        double executableProfitPercent,
+        List<NotionalFillDTO> fills
+) {
+}
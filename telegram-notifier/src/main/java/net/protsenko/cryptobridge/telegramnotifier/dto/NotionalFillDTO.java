@@ -0,0 +1,10 @@
+package net.protsenko.cryptobridge.telegramnotifier.dto;
+
+public record NotionalFillDTO(
+        double notionalUsd,
+        double buyVwap,
+        double sellVwap,
+        double netProfitPercent,
+        boolean filled
+) {
+}
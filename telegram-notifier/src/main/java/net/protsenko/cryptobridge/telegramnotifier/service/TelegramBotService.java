@@ -3,6 +3,9 @@ package net.protsenko.cryptobridge.telegramnotifier.service;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.protsenko.cryptobridge.telegramnotifier.dto.DepthProfileDTO;
+import net.protsenko.cryptobridge.telegramnotifier.dto.NetProfitDTO;
+import net.protsenko.cryptobridge.telegramnotifier.dto.NotionalFillDTO;
 import net.protsenko.cryptobridge.telegramnotifier.dto.PriceSpreadResultDTO;
 import net.protsenko.cryptobridge.telegramnotifier.dto.TradingInfoDTO;
 import net.protsenko.cryptobridge.telegramnotifier.dto.TradingNetworkInfoDTO;
@@ -95,7 +98,9 @@ public class TelegramBotService extends TelegramLongPollingBot {
         StringBuilder sb = new StringBuilder();
         sb.append("📈 <b>").append(spread.instrument()).append("</b>")
                 .append(" | Спред: ").append(formatPriceWithDollar(spread.spread()))
-                .append(" (").append(formatPercent(spread.spreadPercentage())).append(")\n\n");
+                .append(" (").append(formatPercent(spread.spreadPercentage())).append(")\n");
+        appendNetProfitInfo(sb, spread.netProfit());
+        sb.append("\n");
 
         sb.append("<b>Покупка:</b>  ")
                 .append(spread.buyExchange()).append("   ")
@@ -108,6 +113,13 @@ public class TelegramBotService extends TelegramLongPollingBot {
                 .append(formatPriceWithDollar(spread.sellPrice())).append("\n")
                 .append("Объем 24ч: ").append(formatVolumeShort(spread.sellVolume())).append("\n");
         appendSellDepositInfo(sb, spread.sellTradingInfo());
+        appendDepthInfo(sb, spread.depth());
+
+        if (spread.enrichmentPending()) {
+            sb.append("\n<i>Данные о сетях ещё загружаются</i>\n");
+        } else if (!hasNetworks(spread.buyTradingInfo()) || !hasNetworks(spread.sellTradingInfo())) {
+            sb.append("\n<i>Данные о сетях недоступны</i>\n");
+        }
 
         return sb.toString();
     }
@@ -131,6 +143,47 @@ public class TelegramBotService extends TelegramLongPollingBot {
         }
     }
 
+    private void appendNetProfitInfo(StringBuilder sb, NetProfitDTO netProfit) {
+        if (netProfit == null) {
+            return;
+        }
+        sb.append("Чистая прибыль: ");
+        if (!netProfit.feesKnown()) {
+            sb.append("≤ ");
+        }
+        sb.append(formatPercent(netProfit.netProfitPercent()))
+                .append("  Комиссии: ").append(formatPercent(netProfit.feesPercent()));
+        if (netProfit.network() != null) {
+            sb.append("  Сеть: ").append(netProfit.network());
+        }
+        sb.append("\n");
+        if (!netProfit.feesKnown()) {
+            sb.append("<i>Комиссия сети неизвестна, учтены только торговые комиссии</i>\n");
+        }
+    }
+
+    private void appendDepthInfo(StringBuilder sb, DepthProfileDTO depth) {
+        if (depth == null) {
+            return;
+        }
+        sb.append("\n<b>Стакан:</b>  исполнимо ")
+                .append(formatVolumeShort(depth.executableNotionalUsd())).append("$")
+                .append(" (").append(formatPercent(depth.executableProfitPercent())).append(")\n");
+        for (NotionalFillDTO fill : depth.fills()) {
+            sb.append("Объем ").append(formatVolumeShort(fill.notionalUsd())).append("$: ");
+            if (fill.filled()) {
+                sb.append(formatPercent(fill.netProfitPercent()));
+            } else {
+                sb.append("недостаточно ликвидности");
+            }
+            sb.append("\n");
+        }
+    }
+
+    private boolean hasNetworks(TradingInfoDTO info) {
+        return info != null && info.networks() != null && !info.networks().isEmpty();
+    }
+
     private String formatPriceWithDollar(double price) {
         return "$" + String.format("%.6f", price);
     }